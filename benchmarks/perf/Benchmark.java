@@ -0,0 +1,102 @@
+package perf;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * A minimal micro-benchmark harness for the hot paths of the ray tracer.
+ * Each benchmark is run for a few warm-up iterations (so the JIT compiles it) and then for
+ * several timed iterations of a fixed duration. The throughput of the operation and the amount
+ * of memory allocated per operation (by all the threads) are measured.
+ * The settings are read from the system properties bench.warmup, bench.iterations and bench.time
+ * (the duration of an iteration in milliseconds).
+ */
+final class Benchmark {
+    /** Amount of warm-up iterations */
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 3);
+    /** Amount of measured iterations */
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+    /** Duration of an iteration in nanoseconds */
+    private static final long ITERATION_TIME = Long.getLong("bench.time", 1000) * 1_000_000;
+    /** Allocation counters of the JVM threads */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** The results of the operations are kept here so the JIT can't eliminate them */
+    private static volatile Object sink;
+
+    /**
+     * The result of a benchmark.
+     * @param name         The name of the benchmark.
+     * @param param        The parameter of the benchmark (e.g. the amount of geometries).
+     * @param threads      The thread configuration of the benchmark.
+     * @param opsPerSecond The average throughput in operations per second.
+     * @param error        The standard deviation of the throughput between the iterations.
+     * @param bytesPerOp   The average amount of bytes allocated per operation.
+     */
+    record Result(String name, String param, int threads,
+                  double opsPerSecond, double error, double bytesPerOp) {
+        /** The header of the CSV output */
+        static final String HEADER = "benchmark,param,threads,ops_per_s,error,bytes_per_op";
+
+        /**
+         * Formats the result as a CSV line.
+         * @return The CSV line.
+         */
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.1f",
+                    name, param, threads, opsPerSecond, error, bytesPerOp);
+        }
+    }
+
+    /** Static class - no instances */
+    private Benchmark() {}
+
+    /**
+     * Runs a benchmark.
+     * @param name      The name of the benchmark.
+     * @param param     The parameter of the benchmark.
+     * @param threads   The thread configuration of the benchmark.
+     * @param operation The benchmarked operation, its result is consumed by the harness.
+     * @return The measured result.
+     */
+    static Result run(String name, String param, int threads, Supplier<?> operation) {
+        for (int i = 0; i < WARMUP; ++i)
+            iteration(operation);
+
+        double[] throughput = new double[ITERATIONS];
+        long operations = 0;
+        long allocated = THREADS.getTotalThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            long start = System.nanoTime();
+            long count = iteration(operation);
+            throughput[i] = count * 1e9 / (System.nanoTime() - start);
+            operations += count;
+        }
+        allocated = THREADS.getTotalThreadAllocatedBytes() - allocated;
+
+        double mean = 0;
+        for (double value : throughput) mean += value;
+        mean /= ITERATIONS;
+        double variance = 0;
+        for (double value : throughput) variance += (value - mean) * (value - mean);
+        return new Result(name, param, threads, mean, Math.sqrt(variance / ITERATIONS),
+                (double) allocated / operations);
+    }
+
+    /**
+     * Runs the operation repeatedly for the duration of one iteration.
+     * @param operation The benchmarked operation.
+     * @return The amount of operations performed.
+     */
+    private static long iteration(Supplier<?> operation) {
+        long end = System.nanoTime() + ITERATION_TIME;
+        long count = 0;
+        do {
+            sink = operation.get();
+            ++count;
+        } while (System.nanoTime() < end);
+        return count;
+    }
+}
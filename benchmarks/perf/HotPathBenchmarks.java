@@ -0,0 +1,237 @@
+package perf;
+
+import geometries.*;
+import lighting.*;
+import primitives.*;
+import renderer.*;
+import scene.Scene;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static java.awt.Color.*;
+
+/**
+ * Benchmarks of the hot paths of the ray tracer - the intersection of single geometries,
+ * of geometry collections of growing size (with and without a BVH), ray tracing of a
+ * mini-project style scene, the blackboard beam sampling and rendering with several thread
+ * configurations (for the scaling curve).
+ * <p>
+ * Build and run from the project directory:
+ * <pre>
+ * javac -d out $(find src benchmarks -name '*.java')
+ * java -cp out -Dbench.out=bench.csv perf.HotPathBenchmarks [name filter...]
+ * </pre>
+ * The results are printed as CSV lines (see {@link Benchmark.Result#HEADER}),
+ * and are written into the file given by the bench.out property as well.
+ */
+public final class HotPathBenchmarks {
+    /** Amount of precomputed rays each query benchmark cycles through */
+    private static final int RAYS = 1024;
+    /** Random generator with a fixed seed so the runs are comparable */
+    private static final Random random = new Random(42);
+
+    /** The names of the benchmarks to run, all of them if empty */
+    private final String[] filters;
+    /** The collected results */
+    private final List<Benchmark.Result> results = new ArrayList<>();
+
+    /**
+     * Constructs the benchmark suite.
+     * @param filters The names of the benchmarks to run, all of them if empty.
+     */
+    private HotPathBenchmarks(String[] filters) { this.filters = filters; }
+
+    /**
+     * Runs the benchmarks.
+     * @param args Optional substrings of the names of the benchmarks to run.
+     * @throws FileNotFoundException if the output file can't be created.
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        HotPathBenchmarks suite = new HotPathBenchmarks(args);
+        System.out.println(Benchmark.Result.HEADER);
+        suite.geometries();
+        suite.collections();
+        suite.traceRay();
+        suite.blackBoard();
+        suite.renderImage();
+
+        String out = System.getProperty("bench.out");
+        if (out != null)
+            try (PrintStream file = new PrintStream(out)) {
+                file.println(Benchmark.Result.HEADER);
+                suite.results.forEach(result -> file.println(result.toCsv()));
+            }
+    }
+
+    /**
+     * Runs a single benchmark if it passes the filters and prints its result.
+     * @param name      The name of the benchmark.
+     * @param param     The parameter of the benchmark.
+     * @param threads   The thread configuration of the benchmark.
+     * @param operation The benchmarked operation.
+     */
+    private void run(String name, String param, int threads, Supplier<?> operation) {
+        if (filters.length > 0 && java.util.Arrays.stream(filters).noneMatch(name::contains))
+            return;
+        Benchmark.Result result = Benchmark.run(name, param, threads, operation);
+        results.add(result);
+        System.out.println(result.toCsv());
+    }
+
+    /**
+     * Creates an operation that cycles through the given rays.
+     * @param rays  The rays.
+     * @param query The query of a single ray.
+     * @return The operation.
+     */
+    private static Supplier<?> cycle(Ray[] rays, java.util.function.Function<Ray, ?> query) {
+        int[] next = {0};
+        return () -> query.apply(rays[next[0]++ & (RAYS - 1)]);
+    }
+
+    /**
+     * Generates rays from random points around a box towards random points in it,
+     * so some of them hit the geometries in the box and some miss them.
+     * @param size The half size of the box around the origin.
+     * @return The rays.
+     */
+    private static Ray[] rays(double size) {
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i) {
+            Point head = new Point(randomIn(3 * size), randomIn(3 * size), 3 * size);
+            Point target = new Point(randomIn(1.5 * size), randomIn(1.5 * size), randomIn(1.5 * size));
+            rays[i] = new Ray(head, target.subtract(head));
+        }
+        return rays;
+    }
+
+    /**
+     * Generates a random number in a symmetric range.
+     * @param size The half size of the range.
+     * @return The random number.
+     */
+    private static double randomIn(double size) { return (2 * random.nextDouble() - 1) * size; }
+
+    /** Intersection of each type of single geometry */
+    private void geometries() {
+        Ray[] rays = rays(1);
+        Ray axis = new Ray(new Point(0, 0, -1), new Vector(0, 0, 1));
+        run("sphere", "1", 0, cycle(rays, new Sphere(Point.ZERO, 1)::findGeoIntersections));
+        run("triangle", "1", 0, cycle(rays,
+                new Triangle(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(0, 1, 0))::findGeoIntersections));
+        run("polygon", "1", 0, cycle(rays,
+                new Polygon(new Point(-1, -1, 0), new Point(1, -1, 0), new Point(1, 1, 0),
+                        new Point(-1, 1, 0))::findGeoIntersections));
+        run("tube", "1", 0, cycle(rays, new Tube(1, axis)::findGeoIntersections));
+        run("cylinder", "1", 0, cycle(rays, new Cylinder(2, 1, axis)::findGeoIntersections));
+    }
+
+    /** Closest intersection with collections of 10^2 to 10^5 spheres, with and without a BVH */
+    private void collections() {
+        for (int n = 100; n <= 100_000; n *= 10) {
+            double size = 2 * Math.cbrt(n);
+            Geometries geometries = new Geometries();
+            for (int i = 0; i < n; ++i)
+                geometries.add(new Sphere(new Point(randomIn(size), randomIn(size), randomIn(size)), 0.5));
+            Ray[] rays = rays(size);
+            run("geometries", String.valueOf(n), 0, cycle(rays, geometries::findClosestGeoIntersection));
+            geometries.buildBVH();
+            run("geometriesBVH", String.valueOf(n), 0, cycle(rays, geometries::findClosestGeoIntersection));
+        }
+    }
+
+    /** Ray tracing of the primary rays of the benchmark scene */
+    private void traceRay() {
+        Scene scene = scene();
+        Camera camera = camera(scene, 100).build();
+        Ray[] rays = new Ray[RAYS];
+        for (int i = 0; i < RAYS; ++i)
+            rays[i] = camera.constructRay(100, 100, random.nextInt(100), random.nextInt(100));
+        RayTracerBase tracer = new SimpleRayTracer(scene);
+        run("traceRay", "mp", 0, cycle(rays, tracer::traceRay));
+    }
+
+    /** Sampling a glossy beam by the blackboard */
+    private void blackBoard() {
+        Ray[] rays = rays(1);
+        for (int density : new int[]{4, 9, 16}) {
+            BlackBoard blackBoard = new BlackBoard(0.2).setDensityBeam(density).setDistance(1);
+            run("blackBoard", String.valueOf(density), 0, cycle(rays, blackBoard::setRays));
+        }
+    }
+
+    /** Rendering the benchmark scene with several thread configurations */
+    private void renderImage() {
+        Scene scene = scene();
+        for (int threads : new int[]{0, 1, 2, 4, 8, -1, -3}) {
+            Camera.Builder builder = camera(scene, 200);
+            if (threads > 0) builder.setMultithreading(threads, 16);
+            else if (threads == -1) builder.setParallelStream(0, 16);
+            else if (threads == -3) builder.setVirtualThreads(16, 0);
+            Camera camera = builder.build();
+            run("renderImage", "200x200", threads, () -> camera.renderImage(1));
+            camera.shutdown();
+        }
+    }
+
+    /**
+     * Creates the benchmark scene, in the style of the mini-project scenes -
+     * glossy and blurry mirrors, a transparent table with spheres on it and several lights.
+     * @return The scene.
+     */
+    private static Scene scene() {
+        Scene scene = new Scene("Benchmark scene")
+                .setAmbientLight(new AmbientLight(new Color(WHITE), 0.1));
+        scene.lights.add(new SpotLight(new Color(150, 150, 150), new Point(0, -500, 150), new Vector(0, -1, -50))
+                .setKl(4E-5).setKq(2E-7));
+        scene.lights.add(new PointLight(new Color(200, 0, 200), new Point(150, -700, -50))
+                .setKl(0.00001).setKq(0.000001));
+        scene.lights.add(new DirectionalLight(new Color(0, 0, 200), new Vector(400, -150, 0)));
+
+        scene.geometries.add(
+                new Polygon(new Point(0.5, -600, 170), new Point(0.5, -900, 170),
+                        new Point(250, -900, 50), new Point(250, -600, 50))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(1)),
+                new Polygon(new Point(-0.5, -600, 170), new Point(-0.5, -900, 170),
+                        new Point(-250, -900, 50), new Point(-250, -600, 50))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKr(1).setKb(0.2).setDensity(4)),
+                new Polygon(new Point(0, -800, 90), new Point(104.4, -800, 30), new Point(104.4, -800, -90),
+                        new Point(0, -800, -150), new Point(-104.4, -800, -90), new Point(-104.4, -800, 30))
+                        .setMaterial(new Material().setKr(0.3).setKd(0.1).setKs(1).setShininess(2).setKt(0.3)),
+                new Plane(new Point(0, -900, 0), new Vector(0, 1, 0))
+                        .setEmission(new Color(30, 30, 30))
+                        .setMaterial(new Material().setKd(0.5).setKs(0.5).setShininess(30)));
+        for (int i = 0; i < 14; ++i) {
+            double angle = i * Math.PI / 7;
+            scene.geometries.add(new Sphere(new Point(60 * Math.cos(angle), -790, 60 * Math.sin(angle) - 30), 10)
+                    .setEmission(new Color(i % 2 == 0 ? BLUE : RED))
+                    .setMaterial(new Material().setKd(0.4).setKs(0.6).setShininess(50).setKt(i % 2 * 0.3)));
+        }
+        return scene;
+    }
+
+    /**
+     * Creates the camera builder of the benchmark scene.
+     * @param scene The scene.
+     * @param size  The width and height of the image in pixels.
+     * @return The camera builder.
+     */
+    private static Camera.Builder camera(Scene scene, int size) {
+        Vector to = new Vector(0, -0.4, 1);
+        return Camera.getBuilder()
+                .setLocation(new Point(0, -400, -1100))
+                .setDirection(to, new Vector(-1, 0, 0).crossProduct(to))
+                .setVpSize(150, 150)
+                .setDistance(400)
+                .setImageWriter(new ImageWriter("benchmark", size, size))
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setDebugPrint(0);
+    }
+}
@@ -0,0 +1,278 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A node of a bounding volume hierarchy (BVH) over bounded intersectables.
+ * The hierarchy is built top-down with a binned surface area heuristic (SAH) split,
+ * so a ray query only visits the nodes whose bounding box it actually hits.
+ */
+class BVHNode {
+    /** Amount of geometries that are always kept in a single leaf */
+    private static final int MIN_LEAF_SIZE = 2;
+    /** Maximum amount of geometries in a leaf when splitting isn't cheaper */
+    private static final int MAX_LEAF_SIZE = 8;
+    /** Amount of bins used for evaluating the surface area heuristic */
+    private static final int BINS = 12;
+    /** Relative cost of traversing a node compared to intersecting a geometry */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /** The bounding box of all the geometries below this node */
+    final BoundingBox box;
+    /** The left child, null for a leaf */
+    private final BVHNode left;
+    /** The right child, null for a leaf */
+    private final BVHNode right;
+    /** The geometries of a leaf, null for an inner node */
+    private final Intersectable[] leaf;
+
+    /**
+     * A bounded geometry together with its box, used only while building the tree.
+     * @param geometry The geometry.
+     * @param box      The bounding box of the geometry.
+     */
+    record Item(Intersectable geometry, BoundingBox box) {}
+
+    /**
+     * Constructs a leaf node.
+     * @param box   The bounding box of the leaf.
+     * @param items The geometries in the leaf.
+     */
+    private BVHNode(BoundingBox box, List<Item> items) {
+        this.box = box;
+        this.left = null;
+        this.right = null;
+        this.leaf = items.stream().map(Item::geometry).toArray(Intersectable[]::new);
+    }
+
+    /**
+     * Constructs an inner node.
+     * @param box   The bounding box of both children.
+     * @param left  The left child.
+     * @param right The right child.
+     */
+    private BVHNode(BoundingBox box, BVHNode left, BVHNode right) {
+        this.box = box;
+        this.left = left;
+        this.right = right;
+        this.leaf = null;
+    }
+
+    /**
+     * Builds a hierarchy over the given bounded geometries.
+     * @param items The geometries with their bounding boxes, must not be empty.
+     * @return The root of the hierarchy.
+     */
+    static BVHNode build(List<Item> items) {
+        BoundingBox box = items.getFirst().box();
+        BoundingBox centroids = centroid(items.getFirst());
+        for (Item item : items) {
+            box = box.union(item.box());
+            centroids = centroids.union(centroid(item));
+        }
+
+        int size = items.size();
+        if (size <= MIN_LEAF_SIZE)
+            return new BVHNode(box, items);
+
+        // Split along the axis in which the centroids are spread the most
+        int axis = 0;
+        for (int i = 1; i < 3; ++i)
+            if (centroids.max[i] - centroids.min[i] > centroids.max[axis] - centroids.min[axis])
+                axis = i;
+        double lo = centroids.min[axis];
+        double extent = centroids.max[axis] - lo;
+        if (extent <= 0)
+            return size <= MAX_LEAF_SIZE ? new BVHNode(box, items) : medianSplit(box, items, axis);
+
+        // Bin the centroids
+        int[] counts = new int[BINS];
+        BoundingBox[] bounds = new BoundingBox[BINS];
+        for (Item item : items) {
+            int b = bin(item, axis, lo, extent);
+            ++counts[b];
+            bounds[b] = bounds[b] == null ? item.box() : bounds[b].union(item.box());
+        }
+
+        // Sweep from the right and then from the left to evaluate every bin border
+        double[] rightArea = new double[BINS];
+        int[] rightCount = new int[BINS];
+        BoundingBox acc = null;
+        int count = 0;
+        for (int i = BINS - 1; i > 0; --i) {
+            if (bounds[i] != null) acc = acc == null ? bounds[i] : acc.union(bounds[i]);
+            count += counts[i];
+            rightCount[i] = count;
+            rightArea[i] = acc == null ? 0 : acc.surfaceArea();
+        }
+        int bestSplit = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        acc = null;
+        count = 0;
+        for (int i = 0; i < BINS - 1; ++i) {
+            if (bounds[i] != null) acc = acc == null ? bounds[i] : acc.union(bounds[i]);
+            count += counts[i];
+            if (count == 0 || rightCount[i + 1] == 0) continue;
+            double cost = count * acc.surfaceArea() + rightCount[i + 1] * rightArea[i + 1];
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestSplit = i;
+            }
+        }
+
+        double area = box.surfaceArea();
+        double leafCost = size;
+        double splitCost = area > 0 ? TRAVERSAL_COST + bestCost / area : TRAVERSAL_COST + size;
+        if (bestSplit < 0)
+            return size <= MAX_LEAF_SIZE ? new BVHNode(box, items) : medianSplit(box, items, axis);
+        if (splitCost >= leafCost && size <= MAX_LEAF_SIZE)
+            return new BVHNode(box, items);
+
+        List<Item> leftItems = new ArrayList<>();
+        List<Item> rightItems = new ArrayList<>();
+        for (Item item : items)
+            (bin(item, axis, lo, extent) <= bestSplit ? leftItems : rightItems).add(item);
+        return new BVHNode(box, build(leftItems), build(rightItems));
+    }
+
+    /**
+     * Splits the geometries into two equal halves by their centroids along an axis.
+     * Used when the binned heuristic can't separate the geometries.
+     * @param box   The bounding box of all the geometries.
+     * @param items The geometries.
+     * @param axis  The axis to sort along.
+     * @return The inner node of both halves.
+     */
+    private static BVHNode medianSplit(BoundingBox box, List<Item> items, int axis) {
+        List<Item> sorted = new ArrayList<>(items);
+        sorted.sort((a, b) -> Double.compare(a.box().getCenter(axis), b.box().getCenter(axis)));
+        int half = sorted.size() / 2;
+        return new BVHNode(box,
+                build(new ArrayList<>(sorted.subList(0, half))),
+                build(new ArrayList<>(sorted.subList(half, sorted.size()))));
+    }
+
+    /**
+     * Calculates the degenerate box holding only the centroid of a geometry's box.
+     * @param item The geometry.
+     * @return The box of the centroid.
+     */
+    private static BoundingBox centroid(Item item) {
+        BoundingBox b = item.box();
+        return new BoundingBox(b.getCenter(0), b.getCenter(1), b.getCenter(2),
+                b.getCenter(0), b.getCenter(1), b.getCenter(2));
+    }
+
+    /**
+     * Calculates the bin index of a geometry's centroid.
+     * @param item   The geometry.
+     * @param axis   The split axis.
+     * @param lo     The minimal centroid coordinate along the axis.
+     * @param extent The extent of the centroids along the axis.
+     * @return The bin index.
+     */
+    private static int bin(Item item, int axis, double lo, double extent) {
+        int b = (int) (BINS * (item.box().getCenter(axis) - lo) / extent);
+        return b >= BINS ? BINS - 1 : b;
+    }
+
+    /**
+     * Finds the intersections of a ray with all the geometries below this node.
+     * @param ray         The ray to find intersections with.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection points.
+     * @param gp          The list of intersections found so far, or null.
+     * @return The list of intersections found so far, or null if there are none.
+     */
+    List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance, List<GeoPoint> gp) {
+        if (!box.intersects(ray, maxDistance))
+            return gp;
+
+        if (leaf == null) {
+            gp = left.findGeoIntersections(ray, maxDistance, gp);
+            return right.findGeoIntersections(ray, maxDistance, gp);
+        }
+
+        for (Intersectable geometry : leaf) {
+            List<GeoPoint> geometryIntersections = geometry.findGeoIntersectionsHelper(ray, maxDistance);
+            if (geometryIntersections != null) {
+                if (gp == null)
+                    gp = new LinkedList<>();
+                gp.addAll(geometryIntersections);
+            }
+        }
+        return gp;
+    }
+
+    /**
+     * Finds the closest intersection of a ray with the geometries below this node.
+     * The children are visited nearest first, and the distance of the closest point found so far
+     * limits the search, so farther nodes are skipped.
+     * @param ray         The ray to find the intersection with.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The closest GeoPoint (with its parametric distance t), or null if there is none.
+     */
+    GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        if (leaf != null) {
+            for (Intersectable geometry : leaf) {
+                GeoPoint gp = geometry.findClosestGeoIntersectionHelper(ray, maxDistance);
+                if (gp != null && (closest == null || gp.t < closest.t)) {
+                    closest = gp;
+                    maxDistance = gp.t;
+                }
+            }
+            return closest;
+        }
+
+        double leftDistance = left.box.entryDistance(ray, maxDistance);
+        double rightDistance = right.box.entryDistance(ray, maxDistance);
+        boolean leftFirst = leftDistance <= rightDistance;
+        BVHNode near = leftFirst ? left : right;
+        BVHNode far = leftFirst ? right : left;
+        double nearDistance = leftFirst ? leftDistance : rightDistance;
+        double farDistance = leftFirst ? rightDistance : leftDistance;
+        if (nearDistance == Double.POSITIVE_INFINITY)
+            return null;
+
+        closest = near.findClosestGeoIntersection(ray, maxDistance);
+        if (closest != null)
+            maxDistance = closest.t;
+        if (farDistance != Double.POSITIVE_INFINITY && farDistance <= maxDistance) {
+            GeoPoint gp = far.findClosestGeoIntersection(ray, maxDistance);
+            if (gp != null && (closest == null || gp.t < closest.t))
+                closest = gp;
+        }
+        return closest;
+    }
+
+    /**
+     * Accumulates the transparency coefficients of the geometries below this node along a ray,
+     * stopping as soon as an opaque geometry blocks the ray.
+     * @param ray         The ray towards the light source.
+     * @param maxDistance The distance to the light source.
+     * @param ktr         The transparency accumulated so far.
+     * @return The accumulated transparency, ZERO if the ray is blocked.
+     */
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr) {
+        if (!box.intersects(ray, maxDistance))
+            return ktr;
+
+        if (leaf == null) {
+            ktr = left.findTransparency(ray, maxDistance, ktr);
+            return ktr.equals(Double3.ZERO) ? ktr : right.findTransparency(ray, maxDistance, ktr);
+        }
+
+        for (Intersectable geometry : leaf) {
+            ktr = geometry.findTransparencyHelper(ray, maxDistance, ktr);
+            if (ktr.equals(Double3.ZERO))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+}
@@ -0,0 +1,167 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Represents an axis-aligned bounding box (AABB).
+ * A bounding box is defined by its minimum and maximum corners, and is used to cheaply
+ * reject rays before calling the full intersection routine of a geometry.
+ */
+public class BoundingBox {
+    /** Small padding used in the slab test so flat boxes (e.g. polygons) are not missed. */
+    static final double EPS = 1e-9;
+
+    /** The minimum x, y and z coordinates of the box. */
+    final double[] min;
+    /** The maximum x, y and z coordinates of the box. */
+    final double[] max;
+
+    /**
+     * Constructs a new bounding box from its minimum and maximum coordinates.
+     * @param minX The minimum x coordinate.
+     * @param minY The minimum y coordinate.
+     * @param minZ The minimum z coordinate.
+     * @param maxX The maximum x coordinate.
+     * @param maxY The maximum y coordinate.
+     * @param maxZ The maximum z coordinate.
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.min = new double[]{minX, minY, minZ};
+        this.max = new double[]{maxX, maxY, maxZ};
+    }
+
+    /**
+     * Constructs the smallest bounding box that contains all the given points.
+     * @param points The points to bound.
+     * @throws IllegalArgumentException if no points are given.
+     */
+    public BoundingBox(Point... points) {
+        if (points.length == 0)
+            throw new IllegalArgumentException("A bounding box needs at least one point");
+        min = new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        max = new double[]{Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (Point p : points) {
+            min[0] = Math.min(min[0], p.getX());
+            min[1] = Math.min(min[1], p.getY());
+            min[2] = Math.min(min[2], p.getZ());
+            max[0] = Math.max(max[0], p.getX());
+            max[1] = Math.max(max[1], p.getY());
+            max[2] = Math.max(max[2], p.getZ());
+        }
+    }
+
+    /**
+     * Function that gets the minimum corner of the box.
+     * @return The minimum corner.
+     */
+    public Point getMin() { return new Point(min[0], min[1], min[2]); }
+
+    /**
+     * Function that gets the maximum corner of the box.
+     * @return The maximum corner.
+     */
+    public Point getMax() { return new Point(max[0], max[1], max[2]); }
+
+    /**
+     * Function that gets the center of the box along a given axis.
+     * @param axis The axis index (0 - x, 1 - y, 2 - z).
+     * @return The center coordinate along the axis.
+     */
+    public double getCenter(int axis) { return (min[axis] + max[axis]) / 2; }
+
+    /**
+     * Calculates the smallest bounding box containing both this box and another box.
+     * @param other The other box.
+     * @return A new bounding box containing both boxes.
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(min[0], other.min[0]), Math.min(min[1], other.min[1]), Math.min(min[2], other.min[2]),
+                Math.max(max[0], other.max[0]), Math.max(max[1], other.max[1]), Math.max(max[2], other.max[2]));
+    }
+
+    /**
+     * Calculates the surface area of the box, used by the surface area heuristic.
+     * @return The surface area of the box.
+     */
+    public double surfaceArea() {
+        double dx = max[0] - min[0];
+        double dy = max[1] - min[1];
+        double dz = max[2] - min[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Checks whether a ray hits the box within a given maximum distance (slab test).
+     * @param ray The ray to check.
+     * @param maxDistance The maximum distance from the ray's origin.
+     * @return true if the ray may hit the box, false if it surely misses it.
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters the box (slab test).
+     * @param ray The ray to check.
+     * @param maxDistance The maximum distance from the ray's origin.
+     * @return The entry distance (0 if the ray starts inside the box),
+     *         or positive infinity if the ray misses the box within the maximum distance.
+     */
+    public double entryDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        double[] origin = {p0.getX(), p0.getY(), p0.getZ()};
+        double[] direction = {v.getX(), v.getY(), v.getZ()};
+        return entryDistance(min, 0, max, 0, origin, direction, maxDistance);
+    }
+
+    /**
+     * Calculates the distance along a ray at which it enters a box given by flat coordinate arrays
+     * (slab test), shared with the flat hierarchies that don't keep their boxes as objects.
+     * @param min         The array of the minimum x, y and z coordinates of the box.
+     * @param minOffset   The index of the minimum x coordinate in its array.
+     * @param max         The array of the maximum x, y and z coordinates of the box.
+     * @param maxOffset   The index of the maximum x coordinate in its array.
+     * @param origin      The x, y and z coordinates of the ray's origin.
+     * @param direction   The x, y and z coordinates of the ray's direction.
+     * @param maxDistance The maximum distance from the ray's origin.
+     * @return The entry distance (0 if the ray starts inside the box),
+     *         or positive infinity if the ray misses the box within the maximum distance.
+     */
+    static double entryDistance(double[] min, int minOffset, double[] max, int maxOffset,
+                                double[] origin, double[] direction, double maxDistance) {
+        double tNear = 0;
+        double tFar = maxDistance;
+        for (int axis = 0; axis < 3; ++axis) {
+            double lo = min[minOffset + axis] - EPS;
+            double hi = max[maxOffset + axis] + EPS;
+            if (direction[axis] == 0) {
+                // The ray is parallel to the slab - it must start between its planes
+                if (origin[axis] < lo || origin[axis] > hi)
+                    return Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double inv = 1 / direction[axis];
+            double t1 = (lo - origin[axis]) * inv;
+            double t2 = (hi - origin[axis]) * inv;
+            if (t1 > t2) {
+                double tmp = t1;
+                t1 = t2;
+                t2 = tmp;
+            }
+            if (t1 > tNear) tNear = t1;
+            if (t2 < tFar) tFar = t2;
+            if (tNear > tFar + EPS)
+                return Double.POSITIVE_INFINITY;
+        }
+        return tNear;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" + getMin() + ", " + getMax() + '}';
+    }
+}
@@ -37,18 +37,30 @@ public class Circle extends Geometry {
         return this.plane.getNormal();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        // The disc spreads along each axis by the radius times the sine of the axis' angle with the normal
+        Vector n = plane.getNormal();
+        double ex = radius * Math.sqrt(Math.max(0, 1 - n.getX() * n.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - n.getY() * n.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - n.getZ() * n.getZ()));
+        return new BoundingBox(center.getX() - ex, center.getY() - ey, center.getZ() - ez,
+                center.getX() + ex, center.getY() + ey, center.getZ() + ez);
+    }
+
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         List<GeoPoint> planeIntersection = this.plane.findGeoIntersectionsHelper(ray,maxDistance);
         if(planeIntersection == null)
             return null;
 
-        Point p = planeIntersection.getFirst().point;
+        GeoPoint gp = planeIntersection.getFirst();
+        Point p = gp.point;
 
         if(alignZero(p.distanceSquared(this.center) - this.radius * this.radius) >= 0 ||
                 alignZero(p.distanceSquared(ray.getHead()) - maxDistance * maxDistance) > 0)
             return null;
 
-        return List.of(new GeoPoint(this,p));
+        return List.of(new GeoPoint(this, p, gp.t, plane.getNormal()));
     }
 }
\ No newline at end of file
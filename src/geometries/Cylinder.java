@@ -2,7 +2,6 @@ package geometries;
 
 import primitives.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
@@ -37,59 +36,156 @@ public class Cylinder extends Tube {
         // Get the head point of the axis of the cylinder
         Point p2 = axis.getHead();
         Vector v = axis.getDirection();
-        double t;
-
-        //if the point on the base of the cylinder
-        try {
-            t = v.dotProduct(p1.subtract(p2));
-            if (isZero(t))
-                return v.scale(-1);
-        } catch (IllegalArgumentException ex) {
+
+        //if the point on the base of the cylinder (including its center)
+        Vector toPoint = p1.subtractOrNull(p2);
+        if (toPoint == null)
+            return v.scale(-1);
+        double t = v.dotProduct(toPoint);
+        if (isZero(t))
             return v.scale(-1);
-        }
 
         //if the point on the top of the cylinder
         if (isZero(t - height))
             return v;
 
-        if (isZero((v.dotProduct(p1.subtract(p2)))))
-            return v;
-
         return super.getNormal(p1);
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        // The box of both bases - each base spreads along an axis by the radius times
+        // the sine of the axis' angle with the cylinder's axis
+        Vector v = axis.getDirection();
+        Point base = axis.getHead();
+        Point top = axis.getPoint(height);
+        double ex = radius * Math.sqrt(Math.max(0, 1 - v.getX() * v.getX()));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - v.getY() * v.getY()));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - v.getZ() * v.getZ()));
+        return new BoundingBox(
+                Math.min(base.getX(), top.getX()) - ex,
+                Math.min(base.getY(), top.getY()) - ey,
+                Math.min(base.getZ(), top.getZ()) - ez,
+                Math.max(base.getX(), top.getX()) + ex,
+                Math.max(base.getY(), top.getY()) + ey,
+                Math.max(base.getZ(), top.getZ()) + ez);
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> intersections = super.findGeoIntersectionsHelper(ray,maxDistance);
+        double[] roots = new double[2];
+        int count = intersect(ray, maxDistance, roots);
+        if (count == 0)
+            return null;
+        GeoPoint first = new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+        return count == 1 ? List.of(first) : List.of(first, new GeoPoint(this, ray.getPoint(roots[1]), roots[1]));
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] roots = new double[2];
+        return intersect(ray, maxDistance, roots) == 0 ? null
+                : new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+    }
 
-        List<GeoPoint> pointList = new ArrayList<>();
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        // the ray passes the material of the cylinder once for each intersection
+        for (int count = intersect(ray, maxDistance, null); count > 0 && !ktr.equals(Double3.ZERO); --count)
+            ktr = ktr.product(getMaterial().kT);
+        return ktr;
+    }
 
-        if(intersections != null) {
-            for (GeoPoint geoPoint : intersections) {
-                double projection = geoPoint.point.subtract(axis.getHead()).dotProduct(axis.getDirection());
-                if (alignZero(projection) > 0 && alignZero(projection - this.height) < 0)
-                    pointList.add(new GeoPoint(this,geoPoint.point));
+    /**
+     * Finds the intersections of the ray with the shell and the caps of the cylinder - a single quadratic
+     * of the shell and the two cap slab tests.
+     * @param ray         The ray.
+     * @param maxDistance The maximum distance of the intersections.
+     * @param roots       Receives the distances of the intersections along the ray in ascending order,
+     *                    null if only their amount is needed.
+     * @return The amount of intersections ahead of the ray and within the maximum distance (0, 1 or 2).
+     */
+    private int intersect(Ray ray, double maxDistance, double[] roots) {
+        // a convex body has at most two intersections - the entry and the exit
+        double t1 = Double.POSITIVE_INFINITY, t2 = Double.POSITIVE_INFINITY;
+        Vector v = ray.getDirection();
+        Point p0 = ray.getHead();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double wx = p0.getX() - baseX, wy = p0.getY() - baseY, wz = p0.getZ() - baseZ;
+        // the projections of the ray's direction and head on the axis
+        double dA = dx * axisX + dy * axisY + dz * axisZ;
+        double wA = wx * axisX + wy * axisY + wz * axisZ;
+        double dW = dx * wx + dy * wy + dz * wz;
+        double wW = wx * wx + wy * wy + wz * wz;
+
+        // the shell: |w + t*d|^2 - (wA + t*dA)^2 = r^2, with the terms along the axis removed
+        double a = 1 - dA * dA;
+        if (!isZero(a)) {
+            double halfB = dW - dA * wA;
+            double c = wW - wA * wA - radiusSquared;
+            double discriminant = halfB * halfB - a * c;
+            if (discriminant > 0) {
+                // the root that doesn't cancel out, and the other one by Vieta's formula
+                double q = halfB > 0 ? -halfB - Math.sqrt(discriminant) : -halfB + Math.sqrt(discriminant);
+                double r1 = q / a, r2 = c / q;
+                double t = alignZero(Math.min(r1, r2));
+                if (isOnShell(t, wA, dA, maxDistance)) t1 = t;
+                t = alignZero(Math.max(r1, r2));
+                if (isOnShell(t, wA, dA, maxDistance)) {
+                    if (t1 == Double.POSITIVE_INFINITY) t1 = t;
+                    else t2 = t;
+                }
             }
         }
 
-        // intersect with base
-        Circle base = new Circle(axis.getHead(), radius, axis.getDirection());
-        intersections = base.findGeoIntersectionsHelper(ray,maxDistance);
-        if(intersections != null)
-            pointList.add(new GeoPoint(this,intersections.get(0).point));
-
-        base = new Circle(axis.getPoint(height), radius, axis.getDirection());
-        intersections = base.findGeoIntersectionsHelper(ray,maxDistance);
-        if(intersections != null)
-            pointList.add(new GeoPoint(this, intersections.get(0).point));
+        // the caps - the slabs at the base and at the height along the axis
+        if (!isZero(dA)) {
+            double t = capIntersection(0, wA, dA, wW, dW, maxDistance);
+            if (t < t1) { t2 = t1; t1 = t; }
+            else if (t < t2) t2 = t;
+            t = capIntersection(height, wA, dA, wW, dW, maxDistance);
+            if (t < t1) { t2 = t1; t1 = t; }
+            else if (t < t2) t2 = t;
+        }
 
-        if (pointList.size() == 0)
-            return null;
-        return pointList;
+        if (roots != null) {
+            roots[0] = t1;
+            roots[1] = t2;
+        }
+        return t1 == Double.POSITIVE_INFINITY ? 0 : t2 == Double.POSITIVE_INFINITY ? 1 : 2;
     }
 
+    /**
+     * Intersects the ray with a cap of the cylinder.
+     * @param level       The distance of the cap along the axis - 0 for the base or the height for the top.
+     * @param wA          The projection of the ray's head on the axis.
+     * @param dA          The projection of the ray's direction on the axis, not zero.
+     * @param wW          The squared distance of the ray's head from the center of the base.
+     * @param dW          The projection of the ray's direction on the vector from the base to the ray's head.
+     * @param maxDistance The maximum distance of the intersection.
+     * @return The distance of the intersection along the ray, or positive infinity if there is none.
+     */
+    private double capIntersection(double level, double wA, double dA, double wW, double dW, double maxDistance) {
+        double t = alignZero((level - wA) / dA);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return Double.POSITIVE_INFINITY;
+        // the squared distance of the point from the axis must be less than the squared radius
+        return alignZero(wW + 2 * t * dW + t * t - level * level - radiusSquared) < 0 ? t : Double.POSITIVE_INFINITY;
+    }
 
-
+    /**
+     * Checks whether an intersection of the ray with the infinite tube of the cylinder is on the shell
+     * of the cylinder, i.e. ahead of the ray, within the maximum distance and between the caps.
+     * @param t           The distance of the intersection along the ray.
+     * @param wA          The projection of the ray's head on the axis.
+     * @param dA          The projection of the ray's direction on the axis.
+     * @param maxDistance The maximum distance of the intersection.
+     * @return true if the intersection is on the shell.
+     */
+    private boolean isOnShell(double t, double wA, double dA, double maxDistance) {
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return false;
+        double projection = alignZero(wA + t * dA);
+        return projection > 0 && alignZero(projection - height) < 0;
+    }
 }
-
-
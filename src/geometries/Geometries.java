@@ -11,6 +11,16 @@ public class Geometries extends Intersectable {
 
     /** A list to store all the geometries in this composite structure. */
     final private List<Intersectable> geometries = new LinkedList<Intersectable>();
+    /** The bounding volume hierarchy over the bounded geometries, null if it wasn't built. */
+    private BVHNode bvh = null;
+    /** The geometries that have no bounding box and are left out of the hierarchy, null if it wasn't built. */
+    private List<Intersectable> unbounded = null;
+    /** The union of the bounding boxes of all the geometries, null if any of them is unbounded. */
+    private volatile BoundingBox box = null;
+    /** Flag whether the union bounding box was calculated since the last change of the collection. */
+    private volatile boolean boxCalculated = false;
+    /** The collections that contain this collection, whose hierarchies and boxes depend on it. */
+    final private List<Geometries> parents = new LinkedList<>();
 
     /** Default constructor that initializes an empty collection of geometries. */
     public Geometries(){}
@@ -27,6 +37,73 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable...geometries){
         Collections.addAll(this.geometries, geometries);
+        for (Intersectable geometry : geometries)
+            if (geometry instanceof Geometries inner)
+                inner.parents.add(this);
+        invalidate();
+    }
+
+    /**
+     * Drops the hierarchy and the bounding box of the collection and of all the collections containing it,
+     * since they no longer cover all the geometries.
+     */
+    private void invalidate() {
+        bvh = null;
+        unbounded = null;
+        boxCalculated = false;
+        for (Geometries parent : parents)
+            parent.invalidate();
+    }
+
+    /**
+     * Function that gets the union of the bounding boxes of all the geometries.
+     * The box is calculated lazily on first use and cached until geometries are added.
+     * @return The bounding box, or null if the collection is empty or any geometry is unbounded.
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        if (boxCalculated)
+            return box;
+
+        BoundingBox union = null;
+        for (Intersectable geometry : this.geometries) {
+            BoundingBox geometryBox = geometry.getBoundingBox();
+            if (geometryBox == null) {
+                union = null;
+                break;
+            }
+            union = union == null ? geometryBox : union.union(geometryBox);
+        }
+        box = union;
+        boxCalculated = true;
+        return union;
+    }
+
+    /**
+     * Builds a bounding volume hierarchy over the bounded geometries of the collection.
+     * Should be called once, after all the geometries were added and before rendering.
+     * Unbounded geometries (e.g. planes) are kept aside and tested for every ray.
+     * @return The current instance of Geometries (for chaining calls).
+     */
+    public Geometries buildBVH() {
+        if (unbounded != null)
+            return this;
+
+        List<BVHNode.Item> items = new ArrayList<>();
+        List<Intersectable> rest = new LinkedList<>();
+        for (Intersectable geometry : this.geometries) {
+            if (geometry instanceof Geometries inner)
+                inner.buildBVH();
+            BoundingBox box = geometry.getBoundingBox();
+            if (box == null)
+                rest.add(geometry);
+            else
+                items.add(new BVHNode.Item(geometry, box));
+        }
+
+        bvh = items.isEmpty() ? null : BVHNode.build(items);
+        unbounded = rest;
+        return this;
     }
 
     /**
@@ -38,8 +115,21 @@ public class Geometries extends Intersectable {
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         List<GeoPoint> gp = null; // Initialize the list variable as null
 
+        // A ray that misses the box of the whole collection can't hit any of the geometries
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return null;
+
+        // If the hierarchy was built, only the unbounded geometries need to be tested one by one
+        Collection<Intersectable> geometries = this.geometries;
+        if (unbounded != null) {
+            if (bvh != null)
+                gp = bvh.findGeoIntersections(ray, maxDistance, null);
+            geometries = unbounded;
+        }
+
         // Iterate over all geometries in the composite structure
-        for (Intersectable geometry : this.geometries) {
+        for (Intersectable geometry : geometries) {
             // Find intersection points of the current geometry with the given ray
             List<GeoPoint> geometryIntersections = geometry.findGeoIntersectionsHelper(ray,maxDistance);
 
@@ -60,4 +150,72 @@ public class Geometries extends Intersectable {
         return gp;
     }
 
+    /**
+     * Finds the closest intersection GeoPoint of a given ray with all geometries in this composite structure.
+     * The distance of the closest point found so far is passed on as the maximum distance,
+     * so farther geometries are skipped and no list of intersections is built.
+     * @param ray The ray to find the intersection with.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The closest GeoPoint (with its parametric distance t), or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return null;
+
+        GeoPoint closest = null;
+        Collection<Intersectable> geometries = this.geometries;
+        if (unbounded != null) {
+            if (bvh != null && bvh.box.intersects(ray, maxDistance)) {
+                closest = bvh.findClosestGeoIntersection(ray, maxDistance);
+                if (closest != null)
+                    maxDistance = closest.t;
+            }
+            geometries = unbounded;
+        }
+
+        for (Intersectable geometry : geometries) {
+            GeoPoint gp = geometry.findClosestGeoIntersectionHelper(ray, maxDistance);
+            // keep the first of several points at the same distance
+            if (gp != null && (closest == null || gp.t < closest.t)) {
+                closest = gp;
+                maxDistance = gp.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Accumulates the transparency coefficients of all geometries in this composite structure along a ray,
+     * stopping as soon as an opaque geometry blocks the ray.
+     * @param ray The ray from the shaded point towards the light source.
+     * @param maxDistance The distance to the light source.
+     * @param ktr The transparency accumulated so far.
+     * @return The accumulated transparency, ZERO if the ray is blocked.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        BoundingBox box = getBoundingBox();
+        if (box != null && !box.intersects(ray, maxDistance))
+            return ktr;
+
+        Collection<Intersectable> geometries = this.geometries;
+        if (unbounded != null) {
+            if (bvh != null) {
+                ktr = bvh.findTransparency(ray, maxDistance, ktr);
+                if (ktr.equals(Double3.ZERO))
+                    return Double3.ZERO;
+            }
+            geometries = unbounded;
+        }
+
+        for (Intersectable geometry : geometries) {
+            ktr = geometry.findTransparencyHelper(ray, maxDistance, ktr);
+            if (ktr.equals(Double3.ZERO))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
 }
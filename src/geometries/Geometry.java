@@ -59,4 +59,15 @@ public abstract class Geometry extends Intersectable {
       */
      public abstract Vector getNormal(Point p1);
 
+     /**
+      * Get the normal vector to the surface of geometry at an intersection point.
+      * Geometries that keep more data of the intersection than its point (e.g. the triangle
+      * of a mesh) override it to avoid searching for that data again.
+      * @param gp The intersection point on the surface of geometry.
+      * @return The normal vector to the geometry at the given point.
+      */
+     public Vector getNormal(GeoPoint gp) {
+          return getNormal(gp.point);
+     }
+
 }
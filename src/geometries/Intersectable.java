@@ -5,6 +5,8 @@ import primitives.*;
 import java.util.List;
 import java.util.Objects;
 
+import static primitives.Util.alignZero;
+
 /**
  * Abstract class representing an object that can be intersected by a ray.
  */
@@ -49,6 +51,99 @@ public abstract class Intersectable {
      */
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance);
 
+    /**
+     * Finds the closest intersection point between a given ray and the geometry.
+     * @param ray The ray to find the intersection with.
+     * @return The closest GeoPoint (with its parametric distance t), or null if there are no intersections.
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the closest intersection point between a given ray and the geometry,
+     * within a given maximum distance.
+     * @param ray The ray to find the intersection with.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The closest GeoPoint (with its parametric distance t), or null if there are no intersections.
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Finds the closest intersection point between a given ray and the geometry, within a given
+     * maximum distance. The default implementation picks the closest of all the intersections;
+     * subclasses may override it to avoid building the list of intersections.
+     * @param ray The ray to find the intersection with.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The closest GeoPoint (with its parametric distance t), or null if there are no intersections.
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return null;
+
+        GeoPoint closestPoint = ray.findClosestGeoPoint(intersections);
+        // the ray's direction is normalized, so the distance is the parametric t
+        if (closestPoint != null && Double.isNaN(closestPoint.t))
+            closestPoint.t = closestPoint.point.distance(ray.getHead());
+        return closestPoint;
+    }
+
+    /**
+     * Calculates how much light passes along a ray (e.g. a shadow ray towards a light source)
+     * through the geometry, within a given maximum distance.
+     * @param ray The ray from the shaded point towards the light source.
+     * @param maxDistance The distance to the light source.
+     * @return The product of the transparency coefficients (kT) of all the intersected geometries,
+     *         ZERO as soon as an opaque geometry blocks the ray.
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE);
+    }
+
+    /**
+     * Accumulates the transparency coefficients (kT) of the geometry's intersections along a ray
+     * within a given maximum distance. Subclasses may override it to stop at the first opaque hit.
+     * @param ray The ray from the shaded point towards the light source.
+     * @param maxDistance The distance to the light source.
+     * @param ktr The transparency accumulated so far.
+     * @return The accumulated transparency, ZERO if the ray is blocked.
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+
+        Point head = ray.getHead();
+        double maxDistanceSquared = maxDistance * maxDistance;
+        for (GeoPoint gp : intersections) {
+            // not every geometry limits its intersections by the maximum distance
+            if (maxDistance != Double.POSITIVE_INFINITY && (Double.isNaN(gp.t)
+                    ? alignZero(head.distanceSquared(gp.point) - maxDistanceSquared) > 0
+                    : alignZero(gp.t - maxDistance) > 0))
+                continue;
+            ktr = ktr.product(gp.geometry.getMaterial().kT);
+            if (ktr.equals(Double3.ZERO))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Function that gets the axis-aligned bounding box of the intersectable.
+     * Used by acceleration structures to skip the intersectable for rays that miss its box.
+     * @return The bounding box, or null if the intersectable is unbounded.
+     */
+    public BoundingBox getBoundingBox() { return null; }
+
+    /**
+     * Checks whether the intersectable has a finite extent.
+     * @return true if the intersectable has a bounding box, false if it is unbounded (e.g. a plane).
+     */
+    public boolean isBounded() { return getBoundingBox() != null; }
+
     /**
      * A static nested class representing a point of intersection between a ray and a geometry.
      */
@@ -57,6 +152,12 @@ public abstract class Intersectable {
         public Geometry geometry;
         // The point of intersection
         public Point point;
+        // The parametric distance of the point along the intersecting ray, NaN if it wasn't calculated
+        public double t = Double.NaN;
+        // The surface parameters of the point (e.g. barycentric coordinates on a triangle), NaN if the geometry has none
+        public double u = Double.NaN, v = Double.NaN;
+        // The normal to the geometry at the point, calculated once when it is first needed
+        private Vector normal;
 
         /**
          * Constructor to initialize a GeoPoint with a geometry and a point.
@@ -68,6 +169,41 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructor to initialize a GeoPoint with a geometry, a point and its distance along the ray.
+         * @param geometry The geometry that is intersected.
+         * @param point The point of intersection.
+         * @param t The parametric distance of the point along the intersecting ray.
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
+        /**
+         * Constructor to initialize a GeoPoint with its normal, for geometries that know it for free.
+         * @param geometry The geometry that is intersected.
+         * @param point The point of intersection.
+         * @param t The parametric distance of the point along the intersecting ray.
+         * @param normal The normal to the geometry at the point.
+         */
+        public GeoPoint(Geometry geometry, Point point, double t, Vector normal) {
+            this(geometry, point, t);
+            this.normal = normal;
+        }
+
+        /**
+         * Gets the normal to the geometry at the point. The normal is calculated by the geometry
+         * at the first call only, so shading a point doesn't repeat the geometric work.
+         * @return The normal vector.
+         */
+        public Vector getNormal() {
+            if (normal == null)
+                normal = geometry.getNormal(this);
+            return normal;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -61,6 +61,13 @@ public class Plane extends Geometry {
      */
     public Vector getNormal() { return normal; }
 
+    /**
+     * A plane is infinite and therefore has no bounding box.
+     * @return null
+     */
+    @Override
+    public BoundingBox getBoundingBox() { return null; }
+
     /**
      * Finds intersections GeoPoints of a given ray with the plane.
      * @param ray The ray of the intersection.
@@ -71,20 +78,22 @@ public class Plane extends Geometry {
         Point p0 = ray.getHead();
         Vector v = ray.getDirection();
 
-        if (q.equals(p0))
+        Vector v1 = q.subtractOrNull(p0);
+        if (v1 == null)
             return null;
-        Vector v1 = q.subtract(p0);
-        if (isZero(normal.dotProduct(v1)))
+        double nq = normal.dotProduct(v1);
+        if (isZero(nq))
             return null;
 
-        if (isZero(normal.dotProduct(v)))
+        double nv = normal.dotProduct(v);
+        if (isZero(nv))
             return null;
 
-        double t = alignZero((normal.dotProduct(q.subtract(p0))) / normal.dotProduct(v));
+        double t = alignZero(nq / nv);
 
         if (t < 0 || alignZero(t-maxDistance) > 0)
             return null;
-        return List.of(new GeoPoint(this, ray.getPoint(t)));
+        return List.of(new GeoPoint(this, ray.getPoint(t), t, normal));
     }
 
 }
@@ -21,6 +21,11 @@ public class Polygon extends Geometry {
     protected final Plane       plane;
     /** The size of the polygon - the amount of the vertices in the polygon */
     private final int           size;
+    /** The axes of the 2D projection of the polygon - the two axes other than the dominant axis of the normal */
+    private final int           axisU, axisV;
+    /** For each edge in the 2D projection - the coordinates of its start vertex and its unit direction,
+     * null if a subclass intersects the polygon by itself */
+    private final double[]      edges;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -44,6 +49,20 @@ public class Polygon extends Geometry {
      *                                  </ul>
      */
     public Polygon(Point... vertices) {
+        this(true, vertices);
+    }
+
+    /**
+     * Polygon constructor for subclasses, that may skip the 2D projection of the edges if they
+     * override the intersection of the polygon with their own (e.g. a triangle).
+     * @param  project                  whether to prepare the 2D projection of the edges for the
+     *                                  intersection of the polygon
+     * @param  vertices                 list of vertices according to their order by
+     *                                  edge path
+     * @throws IllegalArgumentException in any case of illegal combination of
+     *                                  vertices, as in {@link #Polygon(Point...)}
+     */
+    protected Polygon(boolean project, Point... vertices) {
         if (vertices.length < 3)
             throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
@@ -53,6 +72,26 @@ public class Polygon extends Geometry {
         // polygon with this plane.
         // The plane holds the invariant normal (orthogonal unit) vector to the polygon
         plane         = new Plane(vertices[0], vertices[1], vertices[2]);
+
+        // Project the polygon onto the axis plane in which it is the largest - the one
+        // orthogonal to the dominant axis of the normal
+        Vector  normal   = plane.getNormal();
+        double  nx       = Math.abs(normal.getX()), ny = Math.abs(normal.getY()), nz = Math.abs(normal.getZ());
+        int     dominant = nx >= ny && nx >= nz ? 0 : ny >= nz ? 1 : 2;
+        axisU            = dominant == 0 ? 1 : 0;
+        axisV            = dominant == 2 ? 1 : 2;
+        edges            = project ? new double[4 * size] : null;
+        for (int i = 0; project && i < size; ++i) {
+            Point  from = vertices[i];
+            Point  to   = vertices[(i + 1) % size];
+            double du   = coordinate(to, axisU) - coordinate(from, axisU);
+            double dv   = coordinate(to, axisV) - coordinate(from, axisV);
+            double len  = Math.sqrt(du * du + dv * dv);
+            edges[4 * i]     = coordinate(from, axisU);
+            edges[4 * i + 1] = coordinate(from, axisV);
+            edges[4 * i + 2] = du / len;
+            edges[4 * i + 3] = dv / len;
+        }
         if (size == 3) return; // no need for more tests for a Triangle
 
         Vector  n        = plane.getNormal();
@@ -89,8 +128,14 @@ public class Polygon extends Geometry {
     @Override
     public Vector getNormal(Point p1) { return plane.getNormal(); }
 
+    @Override
+    public BoundingBox getBoundingBox() { return new BoundingBox(vertices.toArray(new Point[0])); }
+
     /**
      * Finds intersections GeoPoints of a given ray with the polygon.
+     * The intersection point with the plane is tested against the edges of the polygon in its
+     * 2D projection - it is inside if it is on the same side of all the edges. Points on an edge
+     * or a vertex are not intersections.
      * @param ray The ray of the intersection.
      * @return A list of GeoPoint intersection points, or null if no intersection is found
      */
@@ -98,7 +143,6 @@ public class Polygon extends Geometry {
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
         Point p0 = ray.getHead();
         Vector v = ray.getDirection();
-        Plane plane = this.plane;
         Vector normal = plane.getNormal();
         Point q = plane.getPoint();
 
@@ -109,40 +153,33 @@ public class Polygon extends Geometry {
         }
 
         // Find the intersection point t on the plane
-        double t = alignZero(normal.dotProduct(q.subtract(p0)) / nv);
+        double t = alignZero((normal.getX() * (q.getX() - p0.getX())
+                + normal.getY() * (q.getY() - p0.getY())
+                + normal.getZ() * (q.getZ() - p0.getZ())) / nv);
         if (t < 0 || alignZero(t - maxDistance) > 0 ) {
             return null;
         }
 
-        Point intersectionPoint = ray.getPoint(t);
-
-        try {
-            // Initialize vectors for the first edge and the point to intersection
-            Vector edgeVector = this.vertices.getFirst().
-                    subtract(this.vertices.get(this.vertices.size() - 1)).normalize();
-            Vector vecToPoint = intersectionPoint.subtract(this.vertices.get(this.vertices.size() - 1)).normalize();
-            Vector normalVector = edgeVector.crossProduct(vecToPoint).normalize(); // First vector to compare to others
-
-            for (int i = 0; i < this.vertices.size() - 1; i++) {
-                edgeVector = this.vertices.get(i + 1).subtract(this.vertices.get(i)).normalize();
-                vecToPoint = intersectionPoint.subtract(this.vertices.get(i)).normalize();
-
-                // The point is on the edge
-                if (edgeVector.equals(vecToPoint) || edgeVector.equals(edgeVector.scale(-1))) {
-                    return null;
-                }
-
-                Vector crossVector = edgeVector.crossProduct(vecToPoint).normalize();
-
-                if (normalVector.dotProduct(crossVector) < 0) {
-                    // At least one vector is not the same, the point is outside the polygon
-                    return null;
-                }
-            }
-            return List.of(new GeoPoint(this, intersectionPoint)); // The point is inside the polygon
-        } catch (IllegalArgumentException e) {
-            // Exception thrown because the zero vector was constructed (point on a vertex or edge)
-            return null;
+        // The projected intersection point must be strictly on the same side of all the edges
+        double u = coordinate(p0, axisU) + coordinate(v, axisU) * t;
+        double w = coordinate(p0, axisV) + coordinate(v, axisV) * t;
+        double side = 0;
+        for (int i = 0; i < 4 * size; i += 4) {
+            double cross = alignZero(edges[i + 2] * (w - edges[i + 1]) - edges[i + 3] * (u - edges[i]));
+            if (cross == 0 || cross * side < 0)
+                return null;
+            side = cross;
         }
+        return List.of(new GeoPoint(this, ray.getPoint(t), t, normal));
+    }
+
+    /**
+     * Function that gets a coordinate of a point by its axis.
+     * @param p    The point.
+     * @param axis The axis (0 - x, 1 - y, 2 - z).
+     * @return The coordinate.
+     */
+    private static double coordinate(Point p, int axis) {
+        return axis == 0 ? p.getX() : axis == 1 ? p.getY() : p.getZ();
     }
 }
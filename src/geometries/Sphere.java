@@ -13,6 +13,10 @@ import static primitives.Util.alignZero;
 public class Sphere extends RadialGeometry {
     /** The center point of the sphere. */
     final private Point center;
+    /** The coordinates of the center */
+    private final double centerX, centerY, centerZ;
+    /** The squared radius */
+    private final double radiusSquared;
 
     /**
      * Constructs a new Sphere object with the specified radius and center point.
@@ -22,6 +26,10 @@ public class Sphere extends RadialGeometry {
     public Sphere(Point center, double radius) {
         super(radius);
         this.center = center;
+        centerX = center.getX();
+        centerY = center.getY();
+        centerZ = center.getZ();
+        radiusSquared = radius * radius;
     }
 
     /**
@@ -37,55 +45,63 @@ public class Sphere extends RadialGeometry {
         return v1.normalize();
     }
 
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
     /**
      * Finds intersection GeoPoints of a given ray with the sphere.
      * @param ray The ray of the intersection.
-     * @return A list of GeoPoint  intersection points, or null if no intersection is found.
+     * @return A list of GeoPoint  intersection points, sorted by their distance, or null if no intersection is found.
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        Point p0 = ray.getHead();
-        Vector v = ray.getDirection();
-
-        if(p0.equals(center))
-            return List.of(new GeoPoint(this, center.add(v.scale(radius))));
-
-        Vector u = center.subtract(p0);
-        double tm = alignZero(v.dotProduct(u));
-        double d = alignZero(Math.sqrt(u.lengthSquared() - tm * tm));
-
-        // if (d >= r) there are no intersection
-        if(d >= radius)
-            return null;
-
-        double th = alignZero(Math.sqrt(radius*radius - d*d));
-        if(th <= 0 || alignZero(th-maxDistance) > 0)
+        double[] roots = new double[2];
+        int count = intersect(ray, maxDistance, roots);
+        if (count == 0)
             return null;
+        GeoPoint first = new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+        return count == 1 ? List.of(first) : List.of(first, new GeoPoint(this, ray.getPoint(roots[1]), roots[1]));
+    }
 
-        double t1 = alignZero(tm - th);
-        double t2 = alignZero(tm + th);
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] roots = new double[2];
+        return intersect(ray, maxDistance, roots) == 0 ? null
+                : new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+    }
 
-        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0 &&
-                t2 > 0 && alignZero(t2 - maxDistance) <= 0)
-        {
-            Point p1 = ray.getPoint(t1);
-            Point p2 = ray.getPoint(t2);
-            if (p1.distance(p0)>p2.distance(p0))
-                return List.of(new GeoPoint(this,p2),new GeoPoint(this,p1));
-            return List.of(new GeoPoint(this,p1),new GeoPoint(this,p2));
-        }
-        if (t1 > 0 && alignZero(t1 - maxDistance) <= 0)
-        {
-            Point p1 = ray.getPoint(t1);
-            return List.of(new GeoPoint(this,p1));
-        }
-        if (t2 > 0 && alignZero(t2 - maxDistance) <= 0)
-        {
-            Point p2 = ray.getPoint(t2);
-            return List.of(new GeoPoint(this,p2));
-        }
+    /**
+     * Solves the intersections of the ray with the sphere once - both roots of the quadratic.
+     * @param ray         The ray.
+     * @param maxDistance The maximum distance of the intersections.
+     * @param roots       Receives the distances of the intersections along the ray in ascending order.
+     * @return The amount of intersections ahead of the ray and within the maximum distance (0, 1 or 2).
+     */
+    private int intersect(Ray ray, double maxDistance, double[] roots) {
+        Point p0 = ray.getHead();
+        Vector v = ray.getDirection();
+        double ox = p0.getX() - centerX, oy = p0.getY() - centerY, oz = p0.getZ() - centerZ;
+        double halfB = v.getX() * ox + v.getY() * oy + v.getZ() * oz;
+        double c = ox * ox + oy * oy + oz * oz - radiusSquared;
+        double discriminant = halfB * halfB - c;
+        // the ray's line misses the sphere or is tangent to it
+        if (alignZero(discriminant) <= 0)
+            return 0;
 
-        return null;
+        // the root that doesn't cancel out, and the other one by Vieta's formula
+        double q = halfB > 0 ? -halfB - Math.sqrt(discriminant) : -halfB + Math.sqrt(discriminant);
+        double r1 = q, r2 = c / q;
+        double t1 = alignZero(Math.min(r1, r2)), t2 = alignZero(Math.max(r1, r2));
+        if (t2 <= 0 || alignZero(t1 - maxDistance) > 0)
+            return 0; // the sphere is behind the ray or beyond the maximum distance
+        // the nearer intersection if it's ahead of the ray, otherwise the farther one
+        boolean first = t1 > 0, second = alignZero(t2 - maxDistance) <= 0;
+        roots[0] = first ? t1 : t2;
+        roots[1] = t2;
+        return first && second ? 2 : first || second ? 1 : 0;
     }
 
 }
@@ -2,11 +2,10 @@ package geometries;
 
 import primitives.*;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 
 /**
@@ -14,6 +13,12 @@ import static primitives.Util.alignZero;
  * A triangle is defined by its three vertices.
  */
 public class Triangle extends Polygon {
+    /** The coordinates of the first vertex, the origin of the edges */
+    private final double p0x, p0y, p0z;
+    /** The edge from the first vertex to the second one */
+    private final double e1x, e1y, e1z;
+    /** The edge from the first vertex to the third one */
+    private final double e2x, e2y, e2z;
 
     /**
      * Constructs a new Triangle object with three vertices.
@@ -22,7 +27,17 @@ public class Triangle extends Polygon {
      * @param p3 The third vertex of the triangle.
      */
     public Triangle(Point p1, Point p2, Point p3) {
-        super(p1, p2, p3);
+        // the triangle is intersected by its own edges, without the projection of the polygon
+        super(false, p1, p2, p3);
+        p0x = p1.getX();
+        p0y = p1.getY();
+        p0z = p1.getZ();
+        e1x = p2.getX() - p0x;
+        e1y = p2.getY() - p0y;
+        e1z = p2.getZ() - p0z;
+        e2x = p3.getX() - p0x;
+        e2y = p3.getY() - p0y;
+        e2z = p3.getZ() - p0z;
     }
 
     /**
@@ -32,38 +47,51 @@ public class Triangle extends Polygon {
      */
     @Override
     protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        Point p0 = ray.getHead(); // The starting point of the ray
-        Vector v = ray.getDirection(); // The direction vector of the ray
-        Plane plane = this.plane;
+        GeoPoint gp = intersect(ray, maxDistance);
+        return gp == null ? null : List.of(gp);
+    }
 
-        if (plane.findGeoIntersectionsHelper(ray,maxDistance) == null)
-            return null;
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        // a triangle has a single intersection, so it's the closest one
+        return intersect(ray, maxDistance);
+    }
 
-        Point intersectionPoint = plane.findGeoIntersectionsHelper(ray,maxDistance).getFirst().point;
+    /**
+     * Intersects a ray with the triangle by the Möller–Trumbore algorithm - the barycentric
+     * coordinates of the intersection and its distance are found in one pass over the edges,
+     * without creating any object on a miss. Points on the edges and the vertices are not intersections.
+     * @param ray         The ray of the intersection.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The intersection with its distance, normal and barycentric coordinates (u, v - the weights
+     *         of the second and the third vertices), or null if there is none.
+     */
+    private GeoPoint intersect(Ray ray, double maxDistance) {
+        Vector v = ray.getDirection();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
 
-        // Vectors from the ray's starting point to the vertices of the triangle
-        Vector v1 = this.vertices.get(0).subtract(p0);
-        Vector v2 = this.vertices.get(1).subtract(p0);
-        Vector v3 = this.vertices.get(2).subtract(p0);
+        // p = v x e2, the determinant is e1 . p
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) return null; // the ray is parallel to the triangle
+        double inv = 1 / det;
 
-        // Normals to the planes formed by the ray and the triangle's edges
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
+        Point head = ray.getHead();
+        double sx = head.getX() - p0x, sy = head.getY() - p0y, sz = head.getZ() - p0z;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0) return null;
 
-        // Dot products of the ray's direction with the normals
-        double d1 = alignZero(v.dotProduct(n1));
-        double d2 = alignZero(v.dotProduct(n2));
-        double d3 = alignZero(v.dotProduct(n3));
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (w <= 0 || alignZero(u + w - 1) >= 0) return null;
 
-        // Check if the ray intersects the triangle
-        // The ray intersects the triangle if all the dot products are either positive or negative
-        if ((d1 > 0 && d2 > 0 && d3 > 0) || (d1 < 0 && d2 < 0 && d3 < 0)) {
-            // If the ray intersects the triangle, find the intersection points with the plane
-            return List.of(new GeoPoint(this, intersectionPoint));
-        }
-        // If the ray does not intersect the triangle, return null
-            return null;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        if (t <= 0 || alignZero(t - maxDistance) > 0) return null;
+        GeoPoint gp = new GeoPoint(this, ray.getPoint(t), t, plane.getNormal());
+        gp.u = u;
+        gp.v = w;
+        return gp;
     }
 
 }
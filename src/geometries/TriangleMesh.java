@@ -0,0 +1,455 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Represents a mesh of triangles sharing their vertices.
+ * The mesh is kept in a structure of arrays - the vertex coordinates in a single double array
+ * and the three vertex indices of each triangle in a single int array - so even meshes of millions
+ * of triangles take only a few objects. The triangles are intersected by the Möller–Trumbore
+ * algorithm, and a bounding volume hierarchy of the triangles is kept in flat arrays as well.
+ * All the triangles share the emission and the material of the mesh.
+ */
+public class TriangleMesh extends Geometry {
+    /** Maximum amount of triangles in a leaf of the hierarchy */
+    private static final int LEAF_SIZE = 4;
+    /** Maximum depth of the hierarchy traversal stack */
+    private static final int STACK_SIZE = 64;
+    /** The traversal data of each thread, reused by all its queries of all the meshes */
+    private static final ThreadLocal<Traversal> TRAVERSALS = ThreadLocal.withInitial(Traversal::new);
+
+    /** The coordinates of the vertices - x, y and z of each vertex */
+    private final double[] vertices;
+    /** The indices of the three vertices of each triangle, ordered by the hierarchy leaves */
+    private final int[] indices;
+    /** The bounds of each node of the hierarchy - the minimal x, y, z and the maximal x, y, z */
+    private final double[] nodeBounds;
+    /** For each node of the hierarchy - the index of its first triangle and the amount of its triangles
+     * for a leaf, or the index of its right child and 0 for an inner node (its left child follows it) */
+    private final int[] nodeData;
+
+    /**
+     * An intersection point with the mesh that remembers the intersected triangle,
+     * so its normal is calculated only when it is needed.
+     */
+    public static class MeshPoint extends GeoPoint {
+        /** The index of the intersected triangle in the mesh */
+        public final int triangle;
+
+        /**
+         * Constructs an intersection point with a triangle of a mesh.
+         * @param mesh     The intersected mesh.
+         * @param point    The intersection point.
+         * @param t        The distance of the point along the ray.
+         * @param triangle The index of the intersected triangle.
+         */
+        MeshPoint(TriangleMesh mesh, Point point, double t, int triangle) {
+            super(mesh, point, t);
+            this.triangle = triangle;
+        }
+    }
+
+    /**
+     * Constructs a mesh of triangles. The mesh takes the vertex array as is, so it must not be
+     * changed afterwards; the index array is copied in the order of the hierarchy.
+     * @param vertices The coordinates of the vertices - x, y and z of each vertex.
+     * @param indices  The indices of the three vertices of each triangle (counter-clockwise
+     *                 when seen from the side of the normal).
+     * @throws IllegalArgumentException if the mesh has no triangles, if the arrays are not made of triads
+     *                                  or if an index is out of the range of the vertices.
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (indices.length == 0)
+            throw new IllegalArgumentException("A mesh must have at least one triangle");
+        if (vertices.length % 3 != 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices and the indices must be given in triads");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is out of the mesh's vertices");
+        this.vertices = vertices;
+
+        // build the hierarchy over the order of the triangles, and then reorder the indices by it
+        int triangles = indices.length / 3;
+        int[] order = new int[triangles];
+        double[] centroids = new double[3 * triangles];
+        for (int i = 0; i < triangles; ++i) {
+            order[i] = i;
+            for (int axis = 0; axis < 3; ++axis)
+                centroids[3 * i + axis] = (vertices[3 * indices[3 * i] + axis]
+                        + vertices[3 * indices[3 * i + 1] + axis]
+                        + vertices[3 * indices[3 * i + 2] + axis]) / 3;
+        }
+        Builder builder = new Builder(indices, order, centroids);
+        builder.build(0, triangles);
+        nodeBounds = Arrays.copyOf(builder.bounds, 6 * builder.nodes);
+        nodeData = Arrays.copyOf(builder.data, 2 * builder.nodes);
+        this.indices = new int[indices.length];
+        for (int i = 0; i < triangles; ++i)
+            System.arraycopy(indices, 3 * order[i], this.indices, 3 * i, 3);
+    }
+
+    /**
+     * Function that gets the amount of triangles in the mesh.
+     * @return The amount of triangles.
+     */
+    public int getTriangleCount() { return indices.length / 3; }
+
+    /**
+     * Function that gets a vertex of a triangle of the mesh.
+     * @param triangle The index of the triangle (as in {@link MeshPoint#triangle}).
+     * @param vertex   The index of the vertex in the triangle (0, 1 or 2).
+     * @return The vertex.
+     */
+    public Point getVertex(int triangle, int vertex) {
+        int v = 3 * indices[3 * triangle + vertex];
+        return new Point(vertices[v], vertices[v + 1], vertices[v + 2]);
+    }
+
+    /**
+     * Calculates the normal of a triangle of the mesh.
+     * @param triangle The index of the triangle.
+     * @return The normal of the triangle.
+     * @throws IllegalArgumentException if the triangle is degenerate.
+     */
+    public Vector getNormal(int triangle) {
+        Scratch scratch = Scratch.get();
+        MutableVector e1 = edge(scratch.v0, triangle, 1);
+        MutableVector e2 = edge(scratch.v1, triangle, 2);
+        return scratch.v2.setCrossProduct(e1, e2).normalize().toVector();
+    }
+
+    /**
+     * Calculates the normal at an intersection point of the mesh by its triangle.
+     * @param gp The intersection point.
+     * @return The normal of the intersected triangle.
+     */
+    @Override
+    public Vector getNormal(GeoPoint gp) {
+        return gp instanceof MeshPoint mp && mp.geometry == this ? getNormal(mp.triangle) : getNormal(gp.point);
+    }
+
+    /**
+     * Calculates the normal at a point of the mesh by searching for a triangle containing it.
+     * Prefer {@link #getNormal(GeoPoint)} with the intersection point, that knows its triangle.
+     * @param p1 The point on the surface of the mesh.
+     * @return The normal of a triangle containing the point.
+     * @throws IllegalArgumentException if the point is not on the mesh.
+     */
+    @Override
+    public Vector getNormal(Point p1) {
+        Scratch scratch = Scratch.get();
+        for (int triangle = 0; triangle < getTriangleCount(); ++triangle) {
+            MutableVector e1 = edge(scratch.v0, triangle, 1);
+            MutableVector e2 = edge(scratch.v1, triangle, 2);
+            MutableVector n = scratch.v2.setCrossProduct(e1, e2);
+            double area = n.lengthSquared();
+            if (isZero(area)) continue;
+            // barycentric coordinates of the point in the plane of the triangle
+            MutableVector p = scratch.v3.set(p1).subtract(getVertex(triangle, 0));
+            if (!isZero(p.dotProduct(n) / Math.sqrt(area))) continue;
+            double d11 = e1.dotProduct(e1), d12 = e1.dotProduct(e2), d22 = e2.dotProduct(e2);
+            double dp1 = p.dotProduct(e1), dp2 = p.dotProduct(e2);
+            double u = (d22 * dp1 - d12 * dp2) / area;
+            double v = (d11 * dp2 - d12 * dp1) / area;
+            if (alignZero(u) >= 0 && alignZero(v) >= 0 && alignZero(u + v - 1) <= 0)
+                return getNormal(triangle);
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return new BoundingBox(nodeBounds[0], nodeBounds[1], nodeBounds[2],
+                nodeBounds[3], nodeBounds[4], nodeBounds[5]);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Traversal traversal = TRAVERSALS.get().set(ray);
+        List<GeoPoint> intersections = null;
+        int[] stack = traversal.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (traversal.entryDistance(nodeBounds, node, maxDistance) == Double.POSITIVE_INFINITY) continue;
+            if (nodeData[2 * node + 1] == 0) {
+                stack[top++] = nodeData[2 * node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            int first = nodeData[2 * node];
+            for (int triangle = first; triangle < first + nodeData[2 * node + 1]; ++triangle) {
+                double t = intersect(triangle, traversal, maxDistance);
+                if (t == Double.POSITIVE_INFINITY) continue;
+                if (intersections == null) intersections = new LinkedList<>();
+                intersections.add(new MeshPoint(this, ray.getPoint(t), t, triangle));
+            }
+        }
+        return intersections;
+    }
+
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Traversal traversal = TRAVERSALS.get().set(ray);
+        int closest = -1;
+        int[] stack = traversal.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (traversal.entryDistance(nodeBounds, node, maxDistance) == Double.POSITIVE_INFINITY) continue;
+            if (nodeData[2 * node + 1] == 0) {
+                // the nearer child is pushed last so it is visited first and limits the farther one
+                int left = node + 1, right = nodeData[2 * node];
+                boolean leftFirst = traversal.entryDistance(nodeBounds, left, maxDistance)
+                        <= traversal.entryDistance(nodeBounds, right, maxDistance);
+                stack[top++] = leftFirst ? right : left;
+                stack[top++] = leftFirst ? left : right;
+                continue;
+            }
+            int first = nodeData[2 * node];
+            for (int triangle = first; triangle < first + nodeData[2 * node + 1]; ++triangle) {
+                double t = intersect(triangle, traversal, maxDistance);
+                if (t != Double.POSITIVE_INFINITY && (closest < 0 || t < maxDistance)) {
+                    maxDistance = t;
+                    closest = triangle;
+                }
+            }
+        }
+        return closest < 0 ? null : new MeshPoint(this, ray.getPoint(maxDistance), maxDistance, closest);
+    }
+
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        // an opaque mesh blocks the ray at its first intersection, no matter which one it is
+        if (!getMaterial().kT.equals(Double3.ZERO))
+            return super.findTransparencyHelper(ray, maxDistance, ktr);
+        Traversal traversal = TRAVERSALS.get().set(ray);
+        int[] stack = traversal.stack;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (traversal.entryDistance(nodeBounds, node, maxDistance) == Double.POSITIVE_INFINITY) continue;
+            if (nodeData[2 * node + 1] == 0) {
+                stack[top++] = nodeData[2 * node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            int first = nodeData[2 * node];
+            for (int triangle = first; triangle < first + nodeData[2 * node + 1]; ++triangle)
+                if (intersect(triangle, traversal, maxDistance) != Double.POSITIVE_INFINITY)
+                    return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Intersects a ray with a triangle of the mesh by the Möller–Trumbore algorithm.
+     * Points on the edges and the vertices are not intersections, as for a single {@link Triangle}.
+     * @param triangle    The index of the triangle.
+     * @param traversal   The ray data.
+     * @param maxDistance The maximum distance from the ray's origin to the intersection point.
+     * @return The distance of the intersection along the ray, or positive infinity if there is none.
+     */
+    private double intersect(int triangle, Traversal traversal, double maxDistance) {
+        int i0 = 3 * indices[3 * triangle];
+        int i1 = 3 * indices[3 * triangle + 1];
+        int i2 = 3 * indices[3 * triangle + 2];
+        double e1x = vertices[i1] - vertices[i0], e1y = vertices[i1 + 1] - vertices[i0 + 1],
+                e1z = vertices[i1 + 2] - vertices[i0 + 2];
+        double e2x = vertices[i2] - vertices[i0], e2y = vertices[i2 + 1] - vertices[i0 + 1],
+                e2z = vertices[i2 + 2] - vertices[i0 + 2];
+        double dx = traversal.direction[0], dy = traversal.direction[1], dz = traversal.direction[2];
+
+        // p = d x e2, the determinant is e1 . p
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) return Double.POSITIVE_INFINITY; // the ray is parallel to the triangle
+        double inv = 1 / det;
+
+        double sx = traversal.origin[0] - vertices[i0], sy = traversal.origin[1] - vertices[i0 + 1],
+                sz = traversal.origin[2] - vertices[i0 + 2];
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0) return Double.POSITIVE_INFINITY;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double w = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (w <= 0 || alignZero(u + w - 1) >= 0) return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t <= 0 || alignZero(t - maxDistance) > 0 ? Double.POSITIVE_INFINITY : t;
+    }
+
+    /**
+     * Calculates an edge of a triangle from its first vertex.
+     * @param result   The vector to keep the edge in.
+     * @param triangle The index of the triangle.
+     * @param vertex   The index of the edge's end vertex in the triangle (1 or 2).
+     * @return The edge.
+     */
+    private MutableVector edge(MutableVector result, int triangle, int vertex) {
+        int i0 = 3 * indices[3 * triangle];
+        int i = 3 * indices[3 * triangle + vertex];
+        return result.set(vertices[i] - vertices[i0], vertices[i + 1] - vertices[i0 + 1],
+                vertices[i + 2] - vertices[i0 + 2]);
+    }
+
+    /**
+     * The data of a ray prepared once for the box tests of the hierarchy traversal, and the traversal stack.
+     * Each thread keeps one for all its queries, so a query allocates nothing but its results.
+     */
+    private static final class Traversal {
+        /** The origin of the ray */
+        final double[] origin = new double[3];
+        /** The direction of the ray */
+        final double[] direction = new double[3];
+        /** The stack of the nodes to visit */
+        final int[] stack = new int[STACK_SIZE];
+
+        /**
+         * Prepares the data of a ray.
+         * @param ray The ray.
+         * @return This traversal.
+         */
+        Traversal set(Ray ray) {
+            Point p0 = ray.getHead();
+            Vector v = ray.getDirection();
+            origin[0] = p0.getX();
+            origin[1] = p0.getY();
+            origin[2] = p0.getZ();
+            direction[0] = v.getX();
+            direction[1] = v.getY();
+            direction[2] = v.getZ();
+            return this;
+        }
+
+        /**
+         * Calculates the distance at which the ray enters the box of a node (slab test).
+         * @param nodeBounds  The bounds of the nodes of the mesh's hierarchy.
+         * @param node        The index of the node.
+         * @param maxDistance The maximum distance from the ray's origin.
+         * @return The entry distance, or positive infinity if the ray misses the box.
+         */
+        double entryDistance(double[] nodeBounds, int node, double maxDistance) {
+            return BoundingBox.entryDistance(nodeBounds, 6 * node, nodeBounds, 6 * node + 3,
+                    origin, direction, maxDistance);
+        }
+    }
+
+    /** Builder of the flat hierarchy - splits the triangles at the median of the widest centroid axis */
+    private class Builder {
+        /** The vertex indices of the triangles in their original order */
+        private final int[] indices;
+        /** The order of the triangles, rearranged by the build */
+        private final int[] order;
+        /** The centroid of each triangle */
+        private final double[] centroids;
+        /** The bounds of the nodes built so far */
+        double[] bounds;
+        /** The data of the nodes built so far */
+        int[] data;
+        /** The amount of nodes built so far */
+        int nodes = 0;
+
+        /**
+         * Prepares the build.
+         * @param indices   The vertex indices of the triangles.
+         * @param order     The order of the triangles.
+         * @param centroids The centroids of the triangles.
+         */
+        Builder(int[] indices, int[] order, double[] centroids) {
+            this.indices = indices;
+            this.order = order;
+            this.centroids = centroids;
+            int capacity = 2 * (order.length / LEAF_SIZE + 1);
+            bounds = new double[6 * capacity];
+            data = new int[2 * capacity];
+        }
+
+        /**
+         * Builds the node of a range of triangles and its descendants.
+         * @param start The first triangle of the range in the order.
+         * @param end   The end of the range (exclusive).
+         */
+        void build(int start, int end) {
+            int node = nodes++;
+            if (6 * nodes > bounds.length) {
+                bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+                data = Arrays.copyOf(data, 2 * data.length);
+            }
+            double[] centroidMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+            double[] centroidMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[6 * node + axis] = Double.POSITIVE_INFINITY;
+                bounds[6 * node + 3 + axis] = Double.NEGATIVE_INFINITY;
+            }
+            for (int i = start; i < end; ++i) {
+                int triangle = order[i];
+                for (int axis = 0; axis < 3; ++axis) {
+                    for (int vertex = 0; vertex < 3; ++vertex) {
+                        double value = vertices[3 * indices[3 * triangle + vertex] + axis];
+                        bounds[6 * node + axis] = Math.min(bounds[6 * node + axis], value);
+                        bounds[6 * node + 3 + axis] = Math.max(bounds[6 * node + 3 + axis], value);
+                    }
+                    centroidMin[axis] = Math.min(centroidMin[axis], centroids[3 * triangle + axis]);
+                    centroidMax[axis] = Math.max(centroidMax[axis], centroids[3 * triangle + axis]);
+                }
+            }
+            if (end - start <= LEAF_SIZE) {
+                data[2 * node] = start;
+                data[2 * node + 1] = end - start;
+                return;
+            }
+
+            int axis = 0;
+            for (int i = 1; i < 3; ++i)
+                if (centroidMax[i] - centroidMin[i] > centroidMax[axis] - centroidMin[axis])
+                    axis = i;
+            int middle = (start + end) >>> 1;
+            select(start, end - 1, middle, axis);
+            build(start, middle);
+            data[2 * node] = nodes;
+            data[2 * node + 1] = 0;
+            build(middle, end);
+        }
+
+        /**
+         * Rearranges a range of the order so the triangle at a given position is the one that would be
+         * there if the range was sorted by the centroids along an axis, with smaller ones before it
+         * and larger ones after it (quickselect).
+         * @param lo   The first position of the range.
+         * @param hi   The last position of the range (inclusive).
+         * @param k    The position to select.
+         * @param axis The axis to compare along.
+         */
+        private void select(int lo, int hi, int k, int axis) {
+            while (lo < hi) {
+                double pivot = centroids[3 * order[(lo + hi) >>> 1] + axis];
+                int i = lo, j = hi;
+                while (i <= j) {
+                    while (centroids[3 * order[i] + axis] < pivot) ++i;
+                    while (centroids[3 * order[j] + axis] > pivot) --j;
+                    if (i <= j) {
+                        int tmp = order[i];
+                        order[i++] = order[j];
+                        order[j--] = tmp;
+                    }
+                }
+                if (k <= j) hi = j;
+                else if (k >= i) lo = i;
+                else return;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ package geometries;
 
 import primitives.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.*;
@@ -15,6 +14,12 @@ import static primitives.Util.*;
 public class Tube extends RadialGeometry {
     /** The axis of the tube. */
     final protected Ray axis;
+    /** The head of the axis */
+    protected final double baseX, baseY, baseZ;
+    /** The direction of the axis */
+    protected final double axisX, axisY, axisZ;
+    /** The squared radius */
+    protected final double radiusSquared;
 
     /**
      * Constructs a new Tube object with the specified radius and axis.
@@ -24,6 +29,15 @@ public class Tube extends RadialGeometry {
     public Tube(double radius, Ray axis) {
         super(radius);
         this.axis = axis;
+        Point head = axis.getHead();
+        baseX = head.getX();
+        baseY = head.getY();
+        baseZ = head.getZ();
+        Vector v = axis.getDirection();
+        axisX = v.getX();
+        axisY = v.getY();
+        axisZ = v.getZ();
+        radiusSquared = radius * radius;
     }
 
     /**
@@ -51,63 +65,78 @@ public class Tube extends RadialGeometry {
         return p1.subtract(O).normalize();
     }
 
+    /**
+     * An infinite tube has no bounding box.
+     * @return null
+     */
     @Override
-    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // solve for t : At^2 + Bt + C = 0
-        // axis params: pa,va, ray params: p,vr
+    public BoundingBox getBoundingBox() { return null; }
 
-        Vector vr = ray.getDirection();
-        Vector va= axis.getDirection();
-        if (vr.equals(va) || vr.equals(va.scale(-1))) //ray parallel to axis
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double[] roots = new double[2];
+        int count = intersect(ray, maxDistance, roots);
+        if (count == 0)
             return null;
-        double vrDotVa = vr.dotProduct(va); //to calculate t1 t2 later
+        GeoPoint first = new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+        return count == 1 ? List.of(first) : List.of(first, new GeoPoint(this, ray.getPoint(roots[1]), roots[1]));
+    }
 
-        if (ray.getHead().equals(axis.getHead())) { //ray start on axis's head point
-            if (isZero(vrDotVa)) //ray also orthogonal to axis
-                return List.of(new GeoPoint(this,ray.getPoint(radius)));
-            double t = radius / (vr.subtract(va.scale(vrDotVa)).length());
-            return List.of(new GeoPoint(this,ray.getPoint(t)));
-        }
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] roots = new double[2];
+        return intersect(ray, maxDistance, roots) == 0 ? null
+                : new GeoPoint(this, ray.getPoint(roots[0]), roots[0]);
+    }
 
-        Vector vecDeltaP = ray.getHead().subtract(axis.getHead());
-        double deltaPDotVa = vecDeltaP.dotProduct(va);
-        if (va.equals(vecDeltaP.normalize()) || va.equals(vecDeltaP.normalize().scale(-1))) { //ray start along axis
-            if (isZero(vrDotVa)) //ray also orthogonal to axis
-                return List.of(new GeoPoint(this,ray.getPoint(radius)));
-            double t = radius / (vr.subtract(va.scale(vrDotVa)).length());
-            return List.of(new GeoPoint(this,ray.getPoint(t)));
-        }
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        // the ray passes the material of the tube once for each intersection
+        for (int count = intersect(ray, maxDistance, null); count > 0 && !ktr.equals(Double3.ZERO); --count)
+            ktr = ktr.product(getMaterial().kT);
+        return ktr;
+    }
 
-        // is either of the vectors, v or deltaP, orthogonal to the vector va-
-        // We don't need the multiplier, we'll use them themselves
-        Vector v1 = isZero(vrDotVa) ? vr : vr.subtract(va.scale(vrDotVa));
-        Vector v2 = isZero(deltaPDotVa) ? vecDeltaP : vecDeltaP.subtract(va.scale(deltaPDotVa));
-
-        // A = (vr - (vr,va)va)^2
-        // B = 2(vr-(vr,va)va , deltaP-(deltaP,va)va)
-        // C = (deltaP - (deltaP,va)va)^2 - r^2
-        // where: deltaP: p-pa , (x,y): dot product
-
-        double A = v1.lengthSquared();
-        double B = v1.dotProduct(v2) * 2;
-        double C = v2.lengthSquared() - radius * radius;
-
-        double discriminant = B * B - 4 * A * C; //in order to solve the quadratic equation
-        if (discriminant <= 0)
-            return null; // ray doesn't intersect at all OR is tangent to tube
-
-        double t1 = alignZero((-B - Math.sqrt(discriminant)) / (2 * A));
-        double t2 = alignZero((-B + Math.sqrt(discriminant)) / (2 * A));
-        if (t1 > 0 && t2 > 0)
-            return List.of(new GeoPoint(this,ray.getPoint(t1)),new GeoPoint(this, ray.getPoint(t2)));
-        if (t1 > 0)
-            return List.of(new GeoPoint(this,ray.getPoint(t1)));
-        if (t2 > 0)
-            return List.of(new GeoPoint(this,ray.getPoint(t2)));
-
-        // The points are on the line that is equations
-        // but not on the ray that has a specific starting point
-        return null;
+    /**
+     * Solves the intersections of the ray with the tube once - both roots of the quadratic.
+     * @param ray         The ray.
+     * @param maxDistance The maximum distance of the intersections.
+     * @param roots       Receives the distances of the intersections along the ray in ascending order,
+     *                    null if only their amount is needed.
+     * @return The amount of intersections ahead of the ray and within the maximum distance (0, 1 or 2).
+     */
+    private int intersect(Ray ray, double maxDistance, double[] roots) {
+        Vector v = ray.getDirection();
+        Point p0 = ray.getHead();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double wx = p0.getX() - baseX, wy = p0.getY() - baseY, wz = p0.getZ() - baseZ;
+        // the projections of the ray's direction and head on the axis
+        double dA = dx * axisX + dy * axisY + dz * axisZ;
+        double wA = wx * axisX + wy * axisY + wz * axisZ;
+
+        // solve for t: a*t^2 + 2*halfB*t + c = 0, with the terms along the axis removed:
+        // a = 1 - (v,va)^2, halfB = (v,w) - (v,va)(w,va), c = |w|^2 - (w,va)^2 - r^2, where w = p0 - pa
+        double a = 1 - dA * dA;
+        if (isZero(a))
+            return 0; // the ray is parallel to the axis
+        double halfB = dx * wx + dy * wy + dz * wz - dA * wA;
+        double c = wx * wx + wy * wy + wz * wz - wA * wA - radiusSquared;
+        double discriminant = halfB * halfB - a * c;
+        if (alignZero(discriminant) <= 0)
+            return 0; // the ray misses the tube or is tangent to it
+
+        // the root that doesn't cancel out, and the other one by Vieta's formula
+        double q = halfB > 0 ? -halfB - Math.sqrt(discriminant) : -halfB + Math.sqrt(discriminant);
+        double r1 = q / a, r2 = c / q;
+        double t1 = alignZero(Math.min(r1, r2)), t2 = alignZero(Math.max(r1, r2));
+        if (t2 <= 0 || alignZero(t1 - maxDistance) > 0)
+            return 0; // the tube is behind the ray or beyond the maximum distance
+        boolean first = t1 > 0, second = alignZero(t2 - maxDistance) <= 0;
+        if (roots != null) {
+            roots[0] = first ? t1 : t2;
+            roots[1] = t2;
+        }
+        return first && second ? 2 : first || second ? 1 : 0;
     }
 
 }
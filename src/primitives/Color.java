@@ -63,6 +63,24 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Red component getter (without upper limit)
+     * @return the red component
+     */
+    public double getRed() { return rgb.d1; }
+
+    /**
+     * Green component getter (without upper limit)
+     * @return the green component
+     */
+    public double getGreen() { return rgb.d2; }
+
+    /**
+     * Blue component getter (without upper limit)
+     * @return the blue component
+     */
+    public double getBlue() { return rgb.d3; }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      * @param  colors one or more other colors to add
@@ -35,6 +35,16 @@ public class Material {
         return this;
 }
 
+    /**
+     * Sets the kind of the sample pattern of the glossy and blurry beams.
+     * @param sampler The kind of the sample pattern.
+     * @return The Material object itself.
+     */
+    public Material setSampler(BlackBoard.Sampler sampler) {
+        blackBoard.setSampler(sampler);
+        return this;
+    }
+
     /**
      * Sets the diffuse reflection coefficient.
      * @param kD The diffuse reflection coefficient.
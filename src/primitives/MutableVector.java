@@ -0,0 +1,115 @@
+package primitives;
+
+/**
+ * A mutable triad of coordinates for the allocation free vector math of hot paths
+ * (the normals of the triangles of a mesh and the specular reflection of the shading).
+ * It has only the operations these paths need. Each operation changes this object in place and returns
+ * it for chaining, so no temporary Double3, Point or Vector objects are created. Unlike Vector, a mutable vector may be zero.
+ * The objects are not thread safe - they must be confined to a single thread,
+ * usually by taking them from the thread's {@link Scratch} registers.
+ * The immutable Point and Vector remain the API for scene construction and for the results.
+ */
+public final class MutableVector {
+    /** The x coordinate */
+    private double x;
+    /** The y coordinate */
+    private double y;
+    /** The z coordinate */
+    private double z;
+
+    /** Constructs a zero mutable vector. */
+    public MutableVector() {}
+
+    /**
+     * Sets the coordinates of this vector.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @return This vector.
+     */
+    public MutableVector set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets the coordinates of this vector to those of a point or a vector.
+     * @param p The point or vector.
+     * @return This vector.
+     */
+    public MutableVector set(Point p) { return set(p.xyz.d1, p.xyz.d2, p.xyz.d3); }
+
+    /**
+     * Sets this vector to the cross product of two vectors.
+     * @param v1 The left hand side operand.
+     * @param v2 The right hand side operand.
+     * @return This vector.
+     */
+    public MutableVector setCrossProduct(MutableVector v1, MutableVector v2) {
+        return set(v1.y * v2.z - v1.z * v2.y, v1.z * v2.x - v1.x * v2.z, v1.x * v2.y - v1.y * v2.x);
+    }
+
+    /**
+     * Subtracts a vector from this vector.
+     * @param v The vector to subtract.
+     * @return This vector.
+     */
+    public MutableVector subtract(Point v) { return set(x - v.xyz.d1, y - v.xyz.d2, z - v.xyz.d3); }
+
+    /**
+     * Adds a scaled vector to this vector (this + v * k).
+     * @param v The vector to add.
+     * @param k The scale of the added vector.
+     * @return This vector.
+     */
+    public MutableVector addScaled(Point v, double k) {
+        return set(x + v.xyz.d1 * k, y + v.xyz.d2 * k, z + v.xyz.d3 * k);
+    }
+
+    /**
+     * Normalizes this vector (scales it to unit length). A zero vector remains zero.
+     * @return This vector.
+     */
+    public MutableVector normalize() {
+        double length = length();
+        return length == 0 ? this : set(x / length, y / length, z / length);
+    }
+
+    /**
+     * Calculates the dot product of this vector and another vector.
+     * @param v The other vector.
+     * @return The dot product.
+     */
+    public double dotProduct(Point v) { return x * v.xyz.d1 + y * v.xyz.d2 + z * v.xyz.d3; }
+
+    /**
+     * Calculates the dot product of this vector and another mutable vector.
+     * @param v The other vector.
+     * @return The dot product.
+     */
+    public double dotProduct(MutableVector v) { return x * v.x + y * v.y + z * v.z; }
+
+    /**
+     * Calculates the squared length of this vector.
+     * @return The squared length.
+     */
+    public double lengthSquared() { return x * x + y * y + z * z; }
+
+    /**
+     * Calculates the length of this vector.
+     * @return The length.
+     */
+    public double length() { return Math.sqrt(lengthSquared()); }
+
+    /**
+     * Creates an immutable vector of the current coordinates.
+     * @return The vector.
+     * @throws IllegalArgumentException if this vector is zero.
+     */
+    public Vector toVector() { return new Vector(x, y, z); }
+
+    @Override
+    public String toString() { return "MutableVector: (" + x + "," + y + "," + z + ")"; }
+}
@@ -60,6 +60,17 @@ public class Point {
         return new Point(xyz.add(v1.xyz));
     }
 
+    /**
+     * Calculates the point moved by a scaled vector (this + v1 * scale).
+     * Unlike add(v1.scale(scale)) it doesn't throw for a zero scale, so it fits hot paths.
+     * @param  v1    The vector to move along.
+     * @param  scale The scale of the vector.
+     * @return Result of add.
+     */
+    public Point addScaled(Vector v1, double scale) {
+        return new Point(xyz.d1 + v1.xyz.d1 * scale, xyz.d2 + v1.xyz.d2 * scale, xyz.d3 + v1.xyz.d3 * scale);
+    }
+
     /**
      * Calculates the subtracted between this point and another point.
      * @param  p1 Right hand side operand for subtraction.
@@ -69,6 +80,17 @@ public class Point {
         return new Vector(xyz.subtract(p1.xyz));
     }
 
+    /**
+     * Calculates the subtracted between this point and another point, without throwing
+     * an exception when the points are the same (e.g. for degenerate cases on hot paths).
+     * @param  p1 Right hand side operand for subtraction.
+     * @return Result of subtract, or null if it is the zero vector.
+     */
+    public Vector subtractOrNull(Point p1) {
+        Double3 result = xyz.subtract(p1.xyz);
+        return result.equals(Double3.ZERO) ? null : new Vector(result);
+    }
+
     /**
      * Calculates the squared distance between this point and another point.
      * @param p1 The point to which the distance is calculated.
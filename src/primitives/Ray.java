@@ -97,7 +97,8 @@ public class Ray {
         double closestDistance = Double.POSITIVE_INFINITY;
 
         for (GeoPoint point : gp) {
-            double distance = this.head.distanceSquared(point.point);
+            // the direction is normalized, so the parametric distance orders the points as well
+            double distance = Double.isNaN(point.t) ? this.head.distanceSquared(point.point) : point.t * point.t;
             if (distance < closestDistance) {
                 closestDistance = distance;
                 closestPoint = point;
@@ -113,11 +114,8 @@ public class Ray {
      * @return A list of rays calculated for the blackboard.
      */
     public List<Ray> calculateBeam(BlackBoard blackBoard) {
-        List<Ray> rays = new LinkedList<>();
-        List<Point> points = blackBoard.setRays(this);
-        for (Point point : points) {
-            rays.add(new Ray(head, point.subtract(head)));
-        }
+        List<Ray> rays = new ArrayList<>(blackBoard.beamSize());
+        blackBoard.forEachRay(this, rays::add);
         return rays;
     }
 
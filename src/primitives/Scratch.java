@@ -0,0 +1,30 @@
+package primitives;
+
+/**
+ * Per-thread scratch registers of mutable vectors for the hot paths of the ray tracer.
+ * Each thread (including each virtual thread) gets its own registers, so they may be used
+ * without locking. A register is valid only within a leaf computation - its value must not be
+ * kept across a call to another method that may use the scratch registers as well.
+ */
+public final class Scratch {
+    /** The registers of each thread */
+    private static final ThreadLocal<Scratch> REGISTERS = ThreadLocal.withInitial(Scratch::new);
+
+    /** First register */
+    public final MutableVector v0 = new MutableVector();
+    /** Second register */
+    public final MutableVector v1 = new MutableVector();
+    /** Third register */
+    public final MutableVector v2 = new MutableVector();
+    /** Fourth register */
+    public final MutableVector v3 = new MutableVector();
+
+    /** Registers are created only per thread */
+    private Scratch() {}
+
+    /**
+     * Function that gets the scratch registers of the current thread.
+     * @return The scratch registers.
+     */
+    public static Scratch get() { return REGISTERS.get(); }
+}
@@ -0,0 +1,170 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.Arrays;
+
+/**
+ * Adaptive super sampling of the pixels of a frame.
+ * A pixel is sampled at its four corners and its center, and a square of the pixel is subdivided into four
+ * quarters only while the luminance variance of its corners and center is above the threshold, up to the
+ * maximal depth - so flat regions cost a few rays per pixel and only the edges are refined. A square that
+ * isn't subdivided is the average of its corners and its center. The center and the edge midpoints of a
+ * square are the corners of its quarters, and the corners of a pixel are shared with the neighbouring
+ * pixels of the same thread - the left corners with the previous pixel of the row, and the top corners
+ * with the pixel above it.
+ */
+class AdaptiveSampler {
+    /** The ray tracer of the samples */
+    private final RayTracerBase rayTracer;
+    /** The generator of the rays through the points of the pixels */
+    private final PrimaryRayGenerator primaryRays;
+    /** The maximal depth of subdivision of a pixel */
+    private final int maxDepth;
+    /** The maximal luminance variance of the corners and the center of a square that isn't subdivided */
+    private final double threshold;
+    /** The traced corners of the pixels of each thread */
+    private final ThreadLocal<Corners> corners;
+
+    /**
+     * The colors of the pixel corners traced by a thread in the last two rows of corners, for reusing them
+     * by the neighbouring pixels. Each row of corners is kept by the parity of its index.
+     */
+    private static final class Corners {
+        /** The colors of the corners by the parity of their row and by their column */
+        private final Color[][] colors;
+        /** The row of each kept corner by the parity of its row and by its column, -1 if none is kept */
+        private final int[][] rows;
+
+        /**
+         * Constructs empty rows of corners.
+         * @param size The amount of corners in a row.
+         */
+        private Corners(int size) {
+            colors = new Color[2][size];
+            rows = new int[2][size];
+            Arrays.fill(rows[0], -1);
+            Arrays.fill(rows[1], -1);
+        }
+    }
+
+    /**
+     * Constructs an adaptive sampler of a frame.
+     * @param rayTracer   The ray tracer of the samples.
+     * @param primaryRays The generator of the rays of the frame.
+     * @param maxDepth    The maximal depth of subdivision of a pixel, 0 for sampling the corners and the center only.
+     * @param threshold   The maximal luminance variance of the corners and the center of a square that isn't
+     *                    subdivided.
+     */
+    AdaptiveSampler(RayTracerBase rayTracer, PrimaryRayGenerator primaryRays, int maxDepth, double threshold) {
+        this.rayTracer = rayTracer;
+        this.primaryRays = primaryRays;
+        this.maxDepth = maxDepth;
+        this.threshold = threshold;
+        corners = ThreadLocal.withInitial(() -> new Corners(primaryRays.columns() + 1));
+    }
+
+    /**
+     * Calculates the color of a pixel.
+     * @param j Column index of the pixel.
+     * @param i Row index of the pixel.
+     * @return The color of the pixel.
+     */
+    Color color(int j, int i) {
+        Corners kept = corners.get();
+        return subdivide(j, i, -0.5, -0.5, 1,
+                corner(kept, j, i), corner(kept, j + 1, i), corner(kept, j, i + 1), corner(kept, j + 1, i + 1),
+                maxDepth);
+    }
+
+    /**
+     * Gets the color of a corner of the pixels, tracing it only if the thread hasn't traced it yet.
+     * A corner is always traced through the same pixel, so its color doesn't depend on the order of the pixels.
+     * @param kept The corners kept by the thread.
+     * @param c    Column index of the corner - the column of the pixel it is the top left corner of.
+     * @param r    Row index of the corner - the row of the pixel it is the top left corner of.
+     * @return The color of the corner.
+     */
+    private Color corner(Corners kept, int c, int r) {
+        int parity = r & 1;
+        if (kept.rows[parity][c] == r)
+            return kept.colors[parity][c];
+        // the corners of the right and the bottom borders are traced through the last pixels
+        boolean right = c == primaryRays.columns(), bottom = r == primaryRays.rows();
+        Color color = trace(right ? c - 1 : c, bottom ? r - 1 : r, right ? 0.5 : -0.5, bottom ? 0.5 : -0.5);
+        kept.rows[parity][c] = r;
+        kept.colors[parity][c] = color;
+        return color;
+    }
+
+    /**
+     * Calculates the color of a square of a pixel from its corners and its center, subdividing it if they differ.
+     * @param j           Column index of the pixel.
+     * @param i           Row index of the pixel.
+     * @param u           The offset of the left side of the square from the center of the pixel.
+     * @param v           The offset of the top side of the square from the center of the pixel.
+     * @param size        The size of the square in pixels.
+     * @param topLeft     The color of the top left corner.
+     * @param topRight    The color of the top right corner.
+     * @param bottomLeft  The color of the bottom left corner.
+     * @param bottomRight The color of the bottom right corner.
+     * @param depth       The remaining depth of subdivision.
+     * @return The color of the square.
+     */
+    private Color subdivide(int j, int i, double u, double v, double size,
+                            Color topLeft, Color topRight, Color bottomLeft, Color bottomRight, int depth) {
+        double half = size / 2;
+        Color center = trace(j, i, u + half, v + half);
+        if (depth == 0 || variance(topLeft, topRight, bottomLeft, bottomRight, center) <= threshold)
+            return topLeft.add(topRight, bottomLeft, bottomRight, center).reduce(5);
+
+        Color top = trace(j, i, u + half, v);
+        Color left = trace(j, i, u, v + half);
+        Color right = trace(j, i, u + size, v + half);
+        Color bottom = trace(j, i, u + half, v + size);
+        --depth;
+        return subdivide(j, i, u, v, half, topLeft, top, left, center, depth)
+                .add(subdivide(j, i, u + half, v, half, top, topRight, center, right, depth),
+                        subdivide(j, i, u, v + half, half, left, center, bottomLeft, bottom, depth),
+                        subdivide(j, i, u + half, v + half, half, center, right, bottom, bottomRight, depth))
+                .reduce(4);
+    }
+
+    /**
+     * Traces the ray through a point of a pixel.
+     * @param j Column index of the pixel.
+     * @param i Row index of the pixel.
+     * @param u The offset of the point to the right of the center of the pixel.
+     * @param v The offset of the point below the center of the pixel.
+     * @return The color of the ray.
+     */
+    private Color trace(int j, int i, double u, double v) {
+        return rayTracer.traceRay(primaryRays.ray(j, i, u, v));
+    }
+
+    /**
+     * Calculates the variance of the luminance of the four corners and the center of a square.
+     * @param topLeft     The color of the top left corner.
+     * @param topRight    The color of the top right corner.
+     * @param bottomLeft  The color of the bottom left corner.
+     * @param bottomRight The color of the bottom right corner.
+     * @param center      The color of the center.
+     * @return The variance.
+     */
+    private static double variance(Color topLeft, Color topRight, Color bottomLeft, Color bottomRight, Color center) {
+        double l1 = luminance(topLeft), l2 = luminance(topRight);
+        double l3 = luminance(bottomLeft), l4 = luminance(bottomRight), l5 = luminance(center);
+        double mean = (l1 + l2 + l3 + l4 + l5) / 5;
+        return ((l1 - mean) * (l1 - mean) + (l2 - mean) * (l2 - mean) + (l3 - mean) * (l3 - mean)
+                + (l4 - mean) * (l4 - mean) + (l5 - mean) * (l5 - mean)) / 5;
+    }
+
+    /**
+     * Calculates the perceived luminance of a color.
+     * @param color The color.
+     * @return The luminance, in the range of the color components.
+     */
+    private static double luminance(Color color) {
+        return 0.2126 * color.getRed() + 0.7152 * color.getGreen() + 0.0722 * color.getBlue();
+    }
+}
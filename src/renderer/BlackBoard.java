@@ -4,21 +4,26 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 
 import static primitives.Util.isZero;
 
 
 public class BlackBoard {
-    private static final Random random = new Random();
-    /** The center point of the blackboard. */
-    private Point pC;
-    /** The up vector of the blackboard. */
-    private Vector vUp;
-    /** The right vector of the blackboard. */
-    private Vector vRight;
+    /** The kinds of sample patterns of a blackboard */
+    public enum Sampler {
+        /** A grid of relative x relative cells clipped to the disk, one sample jittered in each cell */
+        JITTERED,
+        /**
+         * A low discrepancy Halton sequence of densityBeam x densityBeam samples covering the disk evenly,
+         * converging with far fewer rays than the jittered grid
+         */
+        HALTON
+    }
+
     /** The width of the blackboard. */
     private double width;
     /** The density of rays in the beam. Default value is 9. */
@@ -27,12 +32,10 @@ public class BlackBoard {
     private double distance = 3;
     /** Relative density used for grid construction. */
     private int relative = (int) (densityBeam * Math.sqrt(1.27324));
-    /** Alignment value used for grid construction. */
-    private double align = (relative - 1) / 2d;
-    /** Size of a pixel in the blackboard grid. */
-    private double pixelSize;
-    /** Half of the pixel size in the blackboard grid. */
-    private double halfPixel;
+    /** The kind of the sample pattern */
+    private Sampler sampler = Sampler.JITTERED;
+    /** The precomputed sample offsets of the grid, shared by all the blackboards of the same density. */
+    private SamplePattern pattern = SamplePattern.jittered(relative);
 
     /**
      * Constructs a blackboard with the specified width.
@@ -40,8 +43,6 @@ public class BlackBoard {
      */
     public BlackBoard(double width) {
         this.width = width;
-        pixelSize = width / relative;
-        halfPixel = pixelSize / 2;
     }
 
     /**
@@ -52,12 +53,34 @@ public class BlackBoard {
     public BlackBoard setDensityBeam(int densityBeam) {
         this.densityBeam = densityBeam;
         relative = (int) (densityBeam * Math.sqrt(1.27324));
-        align = (relative - 1) / 2d;
-        pixelSize = width / relative;
-        halfPixel = pixelSize / 2;
+        pattern = createPattern();
         return this;
     }
 
+    /**
+     * Sets the kind of the sample pattern of the beam.
+     * @param sampler The kind of the sample pattern.
+     * @return The updated blackboard.
+     */
+    public BlackBoard setSampler(Sampler sampler) {
+        if (sampler == null)
+            throw new IllegalArgumentException("Sampler can't be null");
+        this.sampler = sampler;
+        pattern = createPattern();
+        return this;
+    }
+
+    /**
+     * Gets the precomputed sample pattern of the kind and density of the blackboard.
+     * @return The sample pattern.
+     */
+    private SamplePattern createPattern() {
+        return switch (sampler) {
+            case JITTERED -> SamplePattern.jittered(relative);
+            case HALTON -> SamplePattern.halton(densityBeam * densityBeam);
+        };
+    }
+
 
     /**
      * Sets the width of the blackboard.
@@ -66,8 +89,6 @@ public class BlackBoard {
      */
     public BlackBoard setWidth(double width) {
         this.width = width;
-        pixelSize = width / relative;
-        halfPixel = pixelSize / 2;
         return this;
     }
 
@@ -83,47 +104,137 @@ public class BlackBoard {
 
     /**
      * Sets the rays for the given ray.
+     * The jitter of the rays is seeded by the ray itself, so the same ray always gets the same beam,
+     * no matter which thread samples it - multithreaded renders are reproducible.
+     * The blackboard isn't changed by the sampling, so it may be shared by all the threads.
      * @param ray The ray for which to set the rays.
      * @return The list of points representing the rays.
      */
     public List<Point> setRays(Ray ray) {
-        Vector dir = ray.getDirection();
-        Point p0 = ray.getHead();
-        pC = p0.add(dir.scale(distance));
+        return setRays(ray, seed(ray));
+    }
 
-        if (dir.equals(new Vector(0,0,1)) || dir.equals(new Vector(0,0,-1)))
-            vUp = new Vector(0,1,0);
-        else
-            vUp = dir.getOrthogonalVector();
+    /**
+     * Sets the rays for the given ray, with a given seed of the jitter.
+     * @param ray  The ray for which to set the rays.
+     * @param seed The seed of the random jitter of the rays.
+     * @return The list of points representing the rays.
+     */
+    public List<Point> setRays(Ray ray, long seed) {
+        if (isPoint())
+            return List.of(ray.getHead().add(ray.getDirection()));
+        List<Point> points = new ArrayList<>(pattern.size());
+        sample(ray, seed, (x, y, z) -> points.add(new Point(x, y, z)));
+        return points;
+    }
 
-        this.vRight = dir.crossProduct(vUp);
-        return constructGrid(ray);
+    /**
+     * Gets the maximal amount of rays in a beam of the blackboard, e.g. for sizing a buffer of the rays.
+     * @return The amount of rays.
+     */
+    public int beamSize() {
+        return isPoint() ? 1 : pattern.size();
     }
 
     /**
-     * Constructs a grid of points along the given ray.
-     * @param ray the ray to construct the grid along
-     * @return a list of points forming the grid
+     * Streams the beam of rays from the head of the given ray through the blackboard, without collecting
+     * the points of the blackboard. A point at the head of the ray has no direction, it is skipped.
+     * @param ray    The ray for which to construct the beam.
+     * @param action The consumer of the rays of the beam.
      */
-    private List<Point> constructGrid(Ray ray) {
-        if (width == 0 || densityBeam <= 1)
-            return List.of(ray.getHead().add(ray.getDirection()));
+    public void forEachRay(Ray ray, Consumer<Ray> action) {
+        if (isPoint()) {
+            action.accept(ray);
+            return;
+        }
+        Point head = ray.getHead();
+        double hX = head.getX(), hY = head.getY(), hZ = head.getZ();
+        sample(ray, seed(ray), (x, y, z) -> {
+            double dx = x - hX, dy = y - hY, dz = z - hZ;
+            if (!(isZero(dx) && isZero(dy) && isZero(dz)))
+                action.accept(new Ray(head, new Vector(dx, dy, dz)));
+        });
+    }
 
-        List<Point> points = new LinkedList<>();
-        for (int i = 0; i < relative; i++) {
-            for (int j = 0; j < relative; j++) {
-                double randomX = random.nextDouble() * pixelSize - halfPixel;
-                double randomY = random.nextDouble() * pixelSize - halfPixel;
-                double yI = -(i - align) * pixelSize + randomY;
-                double xJ = (j - align) * pixelSize + randomX;
-
-                Point pIJ = pC;
-                if (!isZero(xJ)) pIJ = pIJ.add(vRight.scale(xJ));
-                if (!isZero(yI)) pIJ = pIJ.add(vUp.scale(yI));
-                if (pIJ.distance(pC) < width / 2) points.add(pIJ);
+    /**
+     * Checks whether the blackboard is degenerated into a single point, i.e. the beam is only the ray itself.
+     * @return true if the beam has a single ray.
+     */
+    private boolean isPoint() {
+        return width == 0 || densityBeam <= 1;
+    }
+
+    /**
+     * Calculates the seed of the jitter of a ray's beam from the ray's head and direction.
+     * @param ray The ray.
+     * @return The seed.
+     */
+    private static long seed(Ray ray) {
+        Point p0 = ray.getHead();
+        Vector dir = ray.getDirection();
+        long seed = Double.doubleToLongBits(p0.getX());
+        seed = seed * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(p0.getY());
+        seed = seed * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(p0.getZ());
+        seed = seed * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(dir.getX());
+        seed = seed * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(dir.getY());
+        return seed * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(dir.getZ());
+    }
+
+    /** Receiver of the coordinates of the sampled points of the blackboard */
+    @FunctionalInterface
+    private interface PointSink {
+        /**
+         * Receives a sampled point.
+         * @param x The x coordinate of the point.
+         * @param y The y coordinate of the point.
+         * @param z The z coordinate of the point.
+         */
+        void accept(double x, double y, double z);
+    }
+
+    /**
+     * Samples the points of the blackboard around the given ray - the samples of a jittered pattern are
+     * jittered inside their cells, and the pattern is rotated by a random angle, so neighbouring beams aren't
+     * correlated, and then transformed into the frame of the ray. The jittered samples out of the disk
+     * of the blackboard are dropped.
+     * @param ray  the ray to sample the blackboard around
+     * @param seed the seed of the jitter and the rotation of the pattern
+     * @param sink the receiver of the points
+     */
+    private void sample(Ray ray, long seed, PointSink sink) {
+        Vector dir = ray.getDirection();
+        Point p0 = ray.getHead();
+        Vector vUp;
+        if (dir.equals(new Vector(0,0,1)) || dir.equals(new Vector(0,0,-1)))
+            vUp = new Vector(0,1,0);
+        else
+            vUp = dir.getOrthogonalVector();
+        Vector vRight = dir.crossProduct(vUp);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double cos = Math.cos(angle) * width, sin = Math.sin(angle) * width;
+        // the right and up axes of the rotated pattern, scaled to the width of the blackboard
+        double rX = vRight.getX() * cos + vUp.getX() * sin;
+        double rY = vRight.getY() * cos + vUp.getY() * sin;
+        double rZ = vRight.getZ() * cos + vUp.getZ() * sin;
+        double uX = vUp.getX() * cos - vRight.getX() * sin;
+        double uY = vUp.getY() * cos - vRight.getY() * sin;
+        double uZ = vUp.getZ() * cos - vRight.getZ() * sin;
+        double cX = p0.getX() + dir.getX() * distance;
+        double cY = p0.getY() + dir.getY() * distance;
+        double cZ = p0.getZ() + dir.getZ() * distance;
+
+        double cell = pattern.cell();
+        for (int k = 0, size = pattern.size(); k < size; k++) {
+            double x = pattern.x(k), y = pattern.y(k);
+            if (cell != 0) {
+                x += (random.nextDouble() - 0.5) * cell;
+                y += (random.nextDouble() - 0.5) * cell;
+                if (x * x + y * y >= 0.25) continue;
             }
+            sink.accept(cX + rX * x + uX * y, cY + rY * x + uY * y, cZ + rZ * x + uZ * y);
         }
-        return points;
     }
 
 }
@@ -4,6 +4,16 @@ import primitives.*;
 import primitives.Vector;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 import static primitives.Util.isZero;
 
@@ -30,10 +40,20 @@ public class Camera implements Cloneable {
     private ImageWriter imageWriter;
     /** The ray tracer for tracing rays in the scene. */
     private RayTracerBase rayTracer;
-    /** The blackboard for generating multiple rays through a pixel. */
-    private BlackBoard blackBoard = new BlackBoard(0);
+    /** The generator of the primary rays of the current frame, kept until the camera moves or the frame changes */
+    private PrimaryRayGenerator primaryRays;
     /** Flag for adaptive super sampling */
     private Boolean adaptive = false;
+    /** Maximal depth of subdivision of a pixel in adaptive super sampling, 0 for deriving it from the amount of rays */
+    private int adaptiveDepth = 0;
+    /** Maximal luminance variance of a square of a pixel that isn't subdivided in adaptive super sampling */
+    private double adaptiveThreshold = 4;
+    /** The adaptive sampler of the frame being rendered */
+    private AdaptiveSampler adaptiveSampler;
+    /** The kind of the sample pattern of the beams of super sampling */
+    private BlackBoard.Sampler sampler = BlackBoard.Sampler.JITTERED;
+    /** Flag for building a bounding volume hierarchy over the scene's geometries before rendering */
+    private boolean bvh = false;
 
     /** Pixel manager for supporting:
      * <ul>
@@ -43,11 +63,29 @@ public class Camera implements Cloneable {
      */
     private PixelManager pixelManager;
     /** Number of threads to use for rendering */
-    private int threadsCount = 0; // -2 auto, -1 range/stream, 0 no threads, 1+ number of threads
+    private int threadsCount = 0; // -3 virtual threads, -2 auto, -1 range/stream, 0 no threads, 1+ number of threads
     /** Number of spare threads if trying to use all the cores */
     private final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
     /** Printing progress percentage interval */
     private double printInterval = 1; // printing progress percentage interval
+    /** Size of the square tiles handed out to the threads, 0 for handing out single pixels (or rows for streams) */
+    private int tileSize = 0;
+    /** Number of threads in the pool of the stream rendering mode, 0 for using the common pool */
+    private int streamPoolSize = 0;
+    /** Worker threads kept for rendering the following frames, they end after being idle for a while */
+    private ThreadPoolExecutor workers = null;
+    /** Time in seconds that an idle worker thread is kept for the following frames */
+    private static final long WORKERS_KEEP_ALIVE = 30;
+    /** Fork-join pool of the stream rendering mode kept for rendering the following frames */
+    private ForkJoinPool streamPool = null;
+    /** Time limit for rendering a single tile in nanoseconds, 0 for no limit */
+    private long tileDeadline = 0;
+    /** Flag for cooperative cancellation of the current rendering, cleared when the rendering ends */
+    private volatile boolean cancelled = false;
+    /** Amount of pixels rendered in the current frame - striped counter, so the threads don't contend on it */
+    private LongAdder renderedPixels = null;
+    /** Amount of pixels of the last frame that were skipped because of cancellation or tile deadlines */
+    private volatile long skippedPixels = 0;
 
 
 
@@ -114,33 +152,22 @@ public class Camera implements Cloneable {
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
 
-        // Calculate the center point of the image plane (pC) by moving from the camera location
-        // along the viewing direction (vTo) by the specified distance
-        Point pC = location.add(vTo.scale(distance));
-
         // Calculate the width (rX) and height (rY) of a single pixel on the image plane
         double rX = width / nX;
         double rY = height / nY;
 
-        // Initialize the point Pij to the center of the image plane (Pc)
-        Point pIJ = pC;
-
         // Calculate the horizontal (xJ) and vertical (Yi) distances from the center to the pixel (j, i)
         double xJ = (j - (nX - 1) / 2d) * rX;
         double yI = -(i - (nY - 1) / 2d) * rY;
 
-        // If xJ is not zero, move Pij horizontally by xJ along the right direction (vRight)
-        if (!isZero(xJ)) {
-            pIJ = pIJ.add(vRight.scale(xJ));
-        }
-
-        // If Yi is not zero, move Pij vertically by Yi along the up direction (vUp)
-        if (!isZero(yI)) {
-            pIJ = pIJ.add(vUp.scale(yI));
-        }
+        // Move from the camera location along the viewing direction (vTo) by the distance to the center
+        // of the image plane, and then horizontally along vRight and vertically along vUp to the pixel (j, i).
+        // Zero moves (e.g. for the central pixel) don't throw, so no special cases are needed
+        Point pIJ = location.addScaled(vTo, distance).addScaled(vRight, xJ).addScaled(vUp, yI);
 
         // Create and return a new Ray from the camera location (location) towards the calculated point (Pij)
-        return new Ray(location, pIJ.subtract(location));
+        Vector direction = pIJ.subtractOrNull(location);
+        return new Ray(location, direction == null ? vTo : direction);
     }
 
 
@@ -154,19 +181,28 @@ public class Camera implements Cloneable {
      * @return A list of rays through the specified pixel.
      */
     public List<Ray> constructRays(int nX, int nY, int j, int i, int numRays) {
-        List<Ray> rays;
-        blackBoard.setDistance(this.distance);
-        blackBoard.setWidth(width/nX);
-        blackBoard.setDensityBeam(numRays);
-        Ray ray = constructRay(nX, nY, j, i);
-        rays= ray.calculateBeam(blackBoard);
-
-        return rays;
+        return primaryRayGenerator(nX, nY, numRays).rays(j, i);
+    }
 
+    /**
+     * Gets the generator of the primary rays for the current position of the camera - the generator
+     * of the current frame is reused, and a new one is created only if the frame or the camera changed.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param numRays Number of rays to cast through each pixel.
+     * @return The generator of the primary rays.
+     */
+    private PrimaryRayGenerator primaryRayGenerator(int nX, int nY, int numRays) {
+        PrimaryRayGenerator generator = primaryRays;
+        if (generator == null || !generator.isFor(nX, nY, numRays))
+            primaryRays = generator = new PrimaryRayGenerator(location, vTo, vUp, vRight, width, height, distance,
+                    nX, nY, numRays, sampler);
+        return generator;
     }
 
     /**
      * Renders the image by casting rays through each pixel.
+     * Whether all the pixels were rendered is reported by {@link #isFrameComplete()}.
      * @return The camera after rendering the image.
      */
     public Camera renderImage(int numRays) {
@@ -175,33 +211,189 @@ public class Camera implements Cloneable {
         // Verify that nX and nY are not zero to avoid division by zero
         if (nY == 0 || nX == 0)
             throw new IllegalArgumentException("It is impossible to divide by 0");
-        pixelManager = new PixelManager(nY, nX, printInterval);
-        if (threadsCount == 0) {
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j)
+        if (bvh)
+            rayTracer.scene.geometries.buildBVH();
+        // the pixel manager of the previous frame is reset if the image size hasn't changed
+        if (pixelManager != null && pixelManager.isFor(nY, nX))
+            pixelManager.reset();
+        else if (tileSize > 0 && threadsCount != 0)
+            pixelManager = new PixelManager(nY, nX, printInterval, tileSize);
+        else if (threadsCount == -1) // streams distribute whole rows if no tile size was set
+            pixelManager = new PixelManager(nY, nX, printInterval, nX, 1);
+        else
+            pixelManager = new PixelManager(nY, nX, printInterval);
+        renderedPixels = new LongAdder();
+        // the view plane is laid out once per frame (or reused from the last frame), and shared by all the threads
+        primaryRays = primaryRayGenerator(nX, nY, numRays);
+        if (adaptive)
+            adaptiveSampler = new AdaptiveSampler(rayTracer, primaryRays,
+                    adaptiveDepth > 0 ? adaptiveDepth : adaptiveDepth(numRays), adaptiveThreshold);
+        try {
+            renderPixels(nX, nY, numRays);
+        } finally {
+            // a cancellation issued before or during this rendering is cleared only when it ends
+            skippedPixels = (long) nX * nY - renderedPixels.sum();
+            cancelled = false;
+        }
+        return this;
+    }
+
+    /**
+     * Renders the pixels of the image in the configured threading mode.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param numRays Number of rays to cast through each pixel.
+     */
+    private void renderPixels(int nX, int nY, int numRays) {
+        if (threadsCount == -3) {
+            // a cheap virtual thread per tile, they all share the small pool of carrier threads
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var tasks = new LinkedList<Future<?>>();
+                for (int tile = 0; tile < pixelManager.getTotalTiles() && !cancelled; ++tile) {
+                    PixelManager.Tile current = pixelManager.getTile(tile);
+                    tasks.add(executor.submit(() -> renderTile(nX, nY, current, numRays)));
+                }
+                waitFor(tasks);
+            }
+        }
+        else if (threadsCount == -1) {
+            Runnable render = () -> IntStream.range(0, pixelManager.getTotalTiles()).parallel()
+                    .forEach(tile -> renderTile(nX, nY, pixelManager.getTile(tile), numRays));
+            if (streamPoolSize == 0)
+                render.run();
+            else { // the stream runs in the pool it was started from
+                if (streamPool == null)
+                    streamPool = new ForkJoinPool(streamPoolSize);
+                waitFor(List.of(streamPool.submit(render)));
+            }
+        }
+        else if (threadsCount == 0) {
+            for (int i = 0; i < nY && !cancelled; ++i)
+                for (int j = 0; j < nX && !cancelled; ++j) {
                     castRay(nX, nY, j, i, numRays);
+                    pixelManager.pixelDone();
+                }
         }
         else { // see further... option 2
-            var threads = new LinkedList<Thread>(); // list of threads
-            while (threadsCount-- > 0) // add appropriate number of threads
-                threads.add(new Thread(() -> { // add a thread with its code
-                    PixelManager.Pixel pixel; // current pixel(row,col)
-                    // allocate pixel(row,col) in loop until there are no more pixels
-                    while ((pixel = pixelManager.nextPixel()) != null)
-                        // cast ray through pixel (and color it – inside castRay)
-                        castRay(nX, nY, pixel.col(), pixel.row(),numRays);
-                }));
-            // start all the threads
-            for (var thread : threads) thread.start();
-            // wait until all the threads have finished
-            try {
-                for (var thread : threads) thread.join();
-            } catch (InterruptedException ignore) {
+            Runnable worker = tileSize > 0
+                    ? () -> { // a worker that renders whole tiles
+                PixelManager.Tile tile; // current tile
+                // allocate tiles without locking until there are no more tiles
+                while ((tile = pixelManager.nextTile()) != null)
+                    renderTile(nX, nY, tile, numRays);
             }
+                    : () -> { // a worker that renders pixel by pixel
+                PixelManager.Pixel pixel; // current pixel(row,col)
+                // allocate pixel(row,col) in loop until there are no more pixels
+                while (!cancelled && (pixel = pixelManager.nextPixel()) != null) {
+                    // cast ray through pixel (and color it – inside castRay)
+                    castRay(nX, nY, pixel.col(), pixel.row(),numRays);
+                    pixelManager.pixelDone();
+                }
+            };
+            // the worker threads are kept for the following frames, and end if no frame follows soon
+            if (workers == null) {
+                workers = new ThreadPoolExecutor(threadsCount, threadsCount,
+                        WORKERS_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                workers.allowCoreThreadTimeOut(true);
+            }
+            var tasks = new LinkedList<Future<?>>(); // one task per thread
+            for (int i = 0; i < threadsCount; ++i)
+                tasks.add(workers.submit(worker));
+            waitFor(tasks);
+        }
+    }
+
+
+    /**
+     * Renders a frame into the given image writer, e.g. one frame of an animation.
+     * The thread configuration, the worker threads and the pixel manager of the camera
+     * are reused from frame to frame.
+     * @param imageWriter The image writer of the frame.
+     * @param numRays Number of rays to cast through each pixel.
+     * @return The camera after rendering the frame.
+     */
+    public Camera renderFrame(ImageWriter imageWriter, int numRays) {
+        this.imageWriter = imageWriter;
+        return renderImage(numRays);
+    }
+
+    /**
+     * Cancels the current rendering cooperatively - the threads stop before their next pixel,
+     * and renderImage returns with the pixels rendered so far. May be called from any thread.
+     * If no rendering is running, the next rendering is cancelled - the cancellation is cleared
+     * only when a rendering ends.
+     */
+    public void cancel() { cancelled = true; }
+
+    /**
+     * Gets the amount of pixels of the last rendered frame that were skipped,
+     * because the rendering was cancelled or the time limit of their tiles was exceeded.
+     * @return The amount of skipped pixels, 0 if the frame is complete.
+     */
+    public long getSkippedPixels() { return skippedPixels; }
+
+    /**
+     * Checks whether all the pixels of the last rendered frame were rendered.
+     * @return true if no pixel of the frame was skipped.
+     */
+    public boolean isFrameComplete() { return skippedPixels == 0; }
+
+    /**
+     * Stops the worker threads kept by the camera for rendering frames.
+     * The threads are created again if another frame is rendered.
+     */
+    public void shutdown() {
+        if (workers != null) workers.shutdown();
+        if (streamPool != null) streamPool.shutdown();
+        workers = null;
+        streamPool = null;
+    }
+
+    /**
+     * Waits until all the rendering tasks have finished.
+     * If the waiting thread is interrupted, the rendering is cancelled and the pending tasks are interrupted.
+     * @param tasks The rendering tasks.
+     * @throws IllegalStateException if any of the tasks failed or the waiting thread was interrupted.
+     */
+    private void waitFor(List<? extends Future<?>> tasks) {
+        try {
+            for (var task : tasks) task.get();
+        } catch (InterruptedException e) {
+            // the interrupt status is restored for the caller, and the workers stop before their next pixel
+            Thread.currentThread().interrupt();
+            cancelled = true;
+            for (var task : tasks) task.cancel(true);
+            throw new IllegalStateException("Rendering was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rendering failed", e.getCause());
         }
-        return this;
     }
 
+    /**
+     * Casts rays through all the pixels of a tile and marks the tile as done.
+     * @param nX Number of pixels in width.
+     * @param nY Number of pixels in height.
+     * @param tile The tile of pixels.
+     * @param numRays Number of rays to cast through each pixel.
+     */
+    private void renderTile(int nX, int nY, PixelManager.Tile tile, int numRays) {
+        long deadline = tileDeadline == 0 ? Long.MAX_VALUE : System.nanoTime() + tileDeadline;
+        for (int i = tile.row(); i < tile.row() + tile.height(); ++i)
+            for (int j = tile.col(); j < tile.col() + tile.width(); ++j) {
+                // the rest of the tile is skipped if the rendering was cancelled or the tile is late
+                if (cancelled || System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+                    pixelManager.tileDone(tile);
+                    return;
+                }
+                castRay(nX, nY, j, i, numRays);
+            }
+        pixelManager.tileDone(tile);
+    }
 
     /**
      * Casts a num of rays through a pixel and writes the resulting color to the image.
@@ -214,40 +406,30 @@ public class Camera implements Cloneable {
         Color color = Color.BLACK;
         if (numRays == 1) {
             // Trace a single ray
-            Ray ray = constructRay(nX, nY, column, row);
+            Ray ray = primaryRays.ray(column, row);
             color = rayTracer.traceRay(ray);
+        } else if (adaptive) {
+            // Refine the pixel only where its samples differ
+            color = adaptiveSampler.color(column, row);
         } else {
-            boolean colorsDifferernt = false;
-            if(adaptive){
             // Trace multiple rays
-            List<Ray> rays = constructRays(nX, nY, column, row, 4);
-            if (!rays.isEmpty()) {
-                // Handle empty rays list, if applicable
-                Color firstColor = rayTracer.traceRay(rays.get(0));
-                // Check if all rays produce the same color
-                for (Ray ray : rays) {
-                    Color currentColor = rayTracer.traceRay(ray);
-                    if (!currentColor.equals(firstColor)) {
-                        colorsDifferernt = true;
-                        break;
-                    }
-                }
-                if (colorsDifferernt) {
-                     rays = constructRays(nX, nY, column, row, numRays);
-                    color = AvrageColor(rays, color);
-                } else {
-                    color = firstColor;
-                }
-            }
-            } else{
-                List<Ray> rays = constructRays(nX, nY, column, row, numRays);
-               color= AvrageColor(rays, color);
-
-        }}
+            List<Ray> rays = primaryRays.rays(column, row);
+            color = AvrageColor(rays, color);
+        }
 
-        // Write the computed color to the image and mark the pixel as done
+        // Write the computed color to the image
         imageWriter.writePixel(column, row, color);
-        pixelManager.pixelDone();
+        renderedPixels.increment();
+    }
+
+    /**
+     * Calculates the maximal depth of adaptive subdivision of a pixel matching the density of a beam,
+     * i.e. the finest grid of samples is about as dense as the beam.
+     * @param numRays The density of the beam.
+     * @return The maximal depth of subdivision.
+     */
+    private static int adaptiveDepth(int numRays) {
+        return Math.max(1, 31 - Integer.numberOfLeadingZeros(numRays));
     }
 
     /**
@@ -314,6 +496,7 @@ public class Camera implements Cloneable {
      */
     public Camera translate(Vector translation) {
         this.location = this.location.add(translation);
+        primaryRays = null; // the rays of the frame start at the old location
         return this;
     }
 
@@ -331,6 +514,7 @@ public class Camera implements Cloneable {
 
         this.vUp = newVUp;
         this.vRight = newVRight;
+        primaryRays = null; // the view plane of the frame is laid out along the old directions
 
         return this;
     }
@@ -541,6 +725,58 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Sets the amount of threads, which render the image tile by tile.
+         * The threads take square tiles of pixels through a lock-free counter instead of
+         * taking the pixels one by one under a lock.
+         * @param threads  The amount of threads (-2 for all the cores but the spare ones).
+         * @param tileSize The width and height of a tile in pixels, e.g. 16.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setMultithreading(int threads, int tileSize) {
+            if (tileSize < 1)
+                throw new IllegalArgumentException("Tile size must be positive");
+            setMultithreading(threads);
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Sets the stream rendering mode (multithreading -1), in which a parallel stream distributes
+         * whole rows of pixels, or tiles if a tile size is given, over a fork-join pool.
+         * @param poolSize The amount of threads in the pool, 0 for the common pool.
+         * @param tileSize The width and height of a tile in pixels, 0 for whole rows.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setParallelStream(int poolSize, int tileSize) {
+            if (poolSize < 0 || tileSize < 0)
+                throw new IllegalArgumentException("Pool size and tile size can't be negative");
+            camera.threadsCount = -1;
+            camera.streamPoolSize = poolSize;
+            camera.tileSize = tileSize;
+            return this;
+        }
+
+        /**
+         * Sets the virtual threads rendering mode (multithreading -3), in which each tile is a task
+         * of its own virtual thread. The virtual threads run over the small pool of carrier threads
+         * of the JVM, so many cameras can render small previews at once and be cancelled cheaply.
+         * @param tileSize The width and height of a tile in pixels, e.g. 16.
+         * @param tileDeadlineMillis Time limit in milliseconds for rendering a tile, after which the rest
+         *                           of the tile is skipped, 0 for no limit.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setVirtualThreads(int tileSize, long tileDeadlineMillis) {
+            if (tileSize < 1)
+                throw new IllegalArgumentException("Tile size must be positive");
+            if (tileDeadlineMillis < 0)
+                throw new IllegalArgumentException("Tile deadline can't be negative");
+            camera.threadsCount = -3;
+            camera.tileSize = tileSize;
+            camera.tileDeadline = tileDeadlineMillis * 1_000_000;
+            return this;
+        }
+
         public Builder setDebugPrint(double interval) {
             camera.printInterval = interval;
             return this;
@@ -551,6 +787,46 @@ public class Camera implements Cloneable {
             return this;
         }
 
+        /**
+         * Sets adaptive super sampling, in which a pixel is subdivided recursively only while the luminance
+         * of the corners and the center of its squares varies.
+         * @param maxDepth  The maximal depth of subdivision of a pixel.
+         * @param threshold The maximal luminance variance of a square that isn't subdivided.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setAdaptive(int maxDepth, double threshold) {
+            if (maxDepth < 0)
+                throw new IllegalArgumentException("Adaptive depth can't be negative");
+            if (threshold < 0)
+                throw new IllegalArgumentException("Adaptive threshold can't be negative");
+            camera.adaptive = true;
+            camera.adaptiveDepth = maxDepth;
+            camera.adaptiveThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the kind of the sample pattern of the beams of super sampling (anti-aliasing).
+         * @param sampler The kind of the sample pattern, e.g. HALTON for converging with fewer rays.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setSampler(BlackBoard.Sampler sampler) {
+            if (sampler == null)
+                throw new IllegalArgumentException("Sampler can't be null");
+            camera.sampler = sampler;
+            return this;
+        }
+
+        /**
+         * Sets whether a bounding volume hierarchy is built over the scene's geometries before rendering.
+         * @param bvh true to accelerate the ray queries with a hierarchy, false for testing all geometries.
+         * @return The Builder instance for chaining.
+         */
+        public Builder setBVH(boolean bvh) {
+            camera.bvh = bvh;
+            return this;
+        }
+
         /**
          * Builds and returns the Camera instance.
          * @return The constructed Camera instance.
@@ -616,7 +892,13 @@ public class Camera implements Cloneable {
             }
 
             try {
-                return (Camera) this.camera.clone();
+                Camera camera = (Camera) this.camera.clone();
+                // a built camera keeps its own rendering state for its frames
+                camera.pixelManager = null;
+                camera.primaryRays = null;
+                camera.workers = null;
+                camera.streamPool = null;
+                return camera;
             } catch (CloneNotSupportedException e) {
                 throw new RuntimeException(e);
             }
@@ -27,6 +27,9 @@ public class ImageWriter {
 
     /** Image generation buffer (the matrix of the pixels) */
     private BufferedImage       image;
+    /** High dynamic range color buffer - red, green and blue of each pixel, row by row.
+     * Each pixel is written by a single thread, so no locking is needed */
+    private final double[]      pixels;
     /** image file name, not including the file extension '.png' */
     private String              imageName;
     /** logger for reporting I/O failures */
@@ -43,6 +46,7 @@ public class ImageWriter {
         this.nY        = nY;
 
         image          = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels         = new double[nX * nY * 3];
     }
 
     // ***************** Getters/Setters ********************** //
@@ -58,7 +62,20 @@ public class ImageWriter {
 
     /** Function writeToImage produces unoptimized png file of the image according to
      * pixel color matrix in the directory of the project */
-    public void writeToImage() {
+    public void writeToImage() { writeToImage(1); }
+
+    /** Function writeToImage produces unoptimized png file of the image according to
+     * pixel color matrix in the directory of the project, after averaging the colors
+     * accumulated into each pixel over a number of samples (passes)
+     * @param samples the amount of samples accumulated into each pixel */
+    public void writeToImage(int samples) {
+        if (samples < 1) throw new IllegalArgumentException("Amount of samples must be positive");
+        // tone mapping - components are averaged and clamped to [0, 255] once for the whole image
+        int[] rgb = new int[nX * nY];
+        for (int pixel = 0, i = 0; pixel < rgb.length; ++pixel, i += 3)
+            rgb[pixel] = channel(pixels[i], samples) << 16 | channel(pixels[i + 1], samples) << 8
+                    | channel(pixels[i + 2], samples);
+        image.setRGB(0, 0, nX, nY, rgb, 0, nX);
         try {
             File file = new File(FOLDER_PATH + '/' + imageName + ".png");
             ImageIO.write(image, "png", file);
@@ -68,12 +85,46 @@ public class ImageWriter {
         }
     }
 
+    /** Function channel averages a color component accumulated over a number of samples and clamps it
+     * to [0, 255], so it can't spill into the other channels of the packed pixel
+     * @param  component the accumulated color component
+     * @param  samples   the amount of samples accumulated into the component
+     * @return           the 8-bit channel value */
+    private static int channel(double component, int samples) {
+        int value = (int) (component / samples);
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+
     /** The function writePixel writes a color of a specific pixel into pixel color matrix
      * @param xIndex X axis index of the pixel
      * @param yIndex Y axis index of the pixel
      * @param color  final color of the pixel */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        int i = (yIndex * nX + xIndex) * 3;
+        pixels[i]     = color.getRed();
+        pixels[i + 1] = color.getGreen();
+        pixels[i + 2] = color.getBlue();
+    }
+
+    /** The function getPixel reads the color of a specific pixel from pixel color matrix
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return color of the pixel */
+    public Color getPixel(int xIndex, int yIndex) {
+        int i = (yIndex * nX + xIndex) * 3;
+        return new Color(pixels[i], pixels[i + 1], pixels[i + 2]);
+    }
+
+    /** The function accumulatePixel adds a color sample to a specific pixel in pixel color matrix,
+     * e.g. for progressive rendering - the samples are averaged by {@link #writeToImage(int)}
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param color  color sample of the pixel */
+    public void accumulatePixel(int xIndex, int yIndex, Color color) {
+        int i = (yIndex * nX + xIndex) * 3;
+        pixels[i]     += color.getRed();
+        pixels[i + 1] += color.getGreen();
+        pixels[i + 2] += color.getBlue();
     }
 
 }
@@ -1,4 +1,8 @@
 package renderer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 /** PixelManager is a helper class. It is used for multi-threading in the renderer and
  * for follow up its progress.<br/>
  * A Camera uses one pixel manager object and several Pixel objects - one in each thread.
@@ -7,6 +11,8 @@ package renderer;
 class PixelManager {
     /** Immutable class for object containing allocated pixel (with its row and column numbers) */
     record Pixel(int col, int row) {}
+    /** Immutable class for object containing allocated tile of pixels (its first column and row, and its size) */
+    record Tile(int col, int row, int width, int height) {}
     /** Maximum rows of pixels */
     private int maxRows = 0;
     /** Maximum columns of pixels */
@@ -31,6 +37,20 @@ class PixelManager {
     private Object mutexNext = new Object();
     /** Mutual exclusion object for printing progress percentage in console window by different threads */
     private Object mutexPixels = new Object();
+    /** Width of the tiles of pixels, 0 if the pixels are allocated one by one */
+    private int tileWidth = 0;
+    /** Height of the tiles of pixels, 0 if the pixels are allocated one by one */
+    private int tileHeight = 0;
+    /** Amount of tiles in a row of tiles */
+    private int tileCols = 0;
+    /** Total amount of tiles in the generated image */
+    private int totalTiles = 0;
+    /** Number of the next tile to allocate - the tiles are allocated without locking */
+    private final AtomicInteger nextTile = new AtomicInteger();
+    /** Amount of pixels in finished tiles - striped counter, so the threads don't contend on it */
+    private final LongAdder tilePixels = new LongAdder();
+    /** Last printed progress update percentage of the tiles */
+    private final AtomicInteger lastPrintedTiles = new AtomicInteger();
     /** Initialize pixel manager data for multi-threading
      * @param maxRows the amount of pixel rows
      * @param maxCols the amount of pixel columns
@@ -43,6 +63,52 @@ class PixelManager {
         printInterval = (int) (interval * 10);
         if (print = printInterval != 0) System.out.printf(PRINT_FORMAT, 0d);
     }
+    /** Initialize pixel manager data for multi-threading with allocation of square tiles of pixels
+     * @param maxRows the amount of pixel rows
+     * @param maxCols the amount of pixel columns
+     * @param interval print time interval in seconds, 0 if printing is not required
+     * @param tileSize the width and height of a tile in pixels
+     */
+    PixelManager(int maxRows, int maxCols, double interval, int tileSize) {
+        this(maxRows, maxCols, interval, tileSize, tileSize);
+    }
+    /** Initialize pixel manager data for multi-threading with allocation of rectangular tiles of pixels
+     * (e.g. whole rows of the image)
+     * @param maxRows the amount of pixel rows
+     * @param maxCols the amount of pixel columns
+     * @param interval print time interval in seconds, 0 if printing is not required
+     * @param tileWidth the width of a tile in pixels
+     * @param tileHeight the height of a tile in pixels
+     */
+    PixelManager(int maxRows, int maxCols, double interval, int tileWidth, int tileHeight) {
+        this(maxRows, maxCols, interval);
+        if (tileWidth < 1 || tileHeight < 1) throw new IllegalArgumentException("Tile size must be positive");
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        tileCols = (maxCols + tileWidth - 1) / tileWidth;
+        totalTiles = tileCols * ((maxRows + tileHeight - 1) / tileHeight);
+    }
+    /** Checks whether the pixel manager was initialized for an image of the given size
+     * @param maxRows the amount of pixel rows
+     * @param maxCols the amount of pixel columns
+     * @return true if the pixel manager can be reset for rendering another image of that size
+     */
+    boolean isFor(int maxRows, int maxCols) { return this.maxRows == maxRows && this.maxCols == maxCols; }
+    /** Reset the allocation and the progress for rendering another frame of the same size */
+    void reset() {
+        synchronized (mutexNext) {
+            cRow = 0;
+            cCol = -1;
+        }
+        synchronized (mutexPixels) {
+            pixels = 0l;
+            lastPrinted = 0;
+        }
+        nextTile.set(0);
+        tilePixels.reset();
+        lastPrintedTiles.set(0);
+        if (print) System.out.printf(PRINT_FORMAT, 0d);
+    }
     /** Function for thread-safe manipulating of main follow up Pixel object - this
      * function is critical section for all the threads, and the pixel manager data
      * is the shared data of this critical section.<br/>
@@ -62,6 +128,44 @@ class PixelManager {
         }
         return null;
     }
+    /** Function for lock-free allocation of the next tile of pixels. The tiles are allocated row by row,
+     * and the tiles at the right and bottom borders of the image may be smaller than the tile size.
+     * @return next tile, or null if there are no more tiles
+     */
+    Tile nextTile() {
+        int tile = nextTile.getAndIncrement();
+        return tile < totalTiles ? getTile(tile) : null;
+    }
+    /** Total amount of tiles - used for distributing the tiles by index, e.g. by a parallel stream
+     * @return the amount of tiles in the generated image
+     */
+    int getTotalTiles() { return totalTiles; }
+    /** Function for getting a tile by its index, tiles are numbered row by row
+     * @param tile index of the tile, from 0 to the total amount of tiles (excluded)
+     * @return the tile
+     */
+    Tile getTile(int tile) {
+        int col = (tile % tileCols) * tileWidth;
+        int row = (tile / tileCols) * tileHeight;
+        return new Tile(col, row, Math.min(tileWidth, maxCols - col), Math.min(tileHeight, maxRows - row));
+    }
+    /** Finish tile processing by updating and printing of progress percentage
+     * @param tile the finished tile
+     */
+    void tileDone(Tile tile) {
+        tilePixels.add((long) tile.width() * tile.height());
+        if (!print) return;
+        // cheap check without locking, most of the tiles don't advance the printed percentage
+        if ((int) (1000l * tilePixels.sum() / totalPixels) - lastPrintedTiles.get() < printInterval) return;
+        // the percentage is compared, updated and printed under one lock, so the printed lines are in order
+        synchronized (mutexPixels) {
+            int percentage = (int) (1000l * tilePixels.sum() / totalPixels);
+            if (percentage - lastPrintedTiles.get() >= printInterval) {
+                lastPrintedTiles.set(percentage);
+                System.out.printf(PRINT_FORMAT, percentage / 10d);
+            }
+        }
+    }
     /** Finish pixel processing by updating and printing of progress percentage */
     void pixelDone() {
         boolean flag = false;
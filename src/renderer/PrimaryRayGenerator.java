@@ -0,0 +1,150 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static primitives.Util.isZero;
+
+/**
+ * Generator of the primary rays of a frame of the camera.
+ * The center of the view plane and the offsets of all the pixel columns and rows are calculated
+ * once per frame, so generating the ray through a pixel takes only a few multiply-adds.
+ * The blackboard of the beams is configured once per frame as well. The generator is immutable,
+ * so it is shared by all the rendering threads of the frame.
+ */
+class PrimaryRayGenerator {
+    /** The location of the camera - the head of all the primary rays */
+    private final Point location;
+    /** The direction of the camera, used for a degenerate pixel at the location */
+    private final Vector vTo;
+    /** The right direction of the view plane */
+    private final double rightX, rightY, rightZ;
+    /** The up direction of the view plane */
+    private final double upX, upY, upZ;
+    /** The center of the view plane */
+    private final double centerX, centerY, centerZ;
+    /** The offset along the right direction of the center of each pixel column */
+    private final double[] columns;
+    /** The offset along the up direction of the center of each pixel row */
+    private final double[] rows;
+    /** The width and height of a pixel */
+    private final double rX, rY;
+    /** The density of the beams through the pixels */
+    private final int numRays;
+    /** Blackboard of the beams through the pixels, shared by all the threads since sampling doesn't change it */
+    private final BlackBoard blackBoard;
+
+    /**
+     * Prepares the primary rays of a frame.
+     * @param location The location of the camera.
+     * @param vTo      The direction of the camera.
+     * @param vUp      The up direction of the camera.
+     * @param vRight   The right direction of the camera.
+     * @param width    The width of the view plane.
+     * @param height   The height of the view plane.
+     * @param distance The distance of the view plane from the camera.
+     * @param nX       The amount of pixel columns.
+     * @param nY       The amount of pixel rows.
+     * @param numRays  The density of the beams through the pixels.
+     * @param sampler  The kind of the sample pattern of the beams through the pixels.
+     */
+    PrimaryRayGenerator(Point location, Vector vTo, Vector vUp, Vector vRight, double width, double height,
+                        double distance, int nX, int nY, int numRays, BlackBoard.Sampler sampler) {
+        this.location = location;
+        this.vTo = vTo;
+        rightX = vRight.getX();
+        rightY = vRight.getY();
+        rightZ = vRight.getZ();
+        upX = vUp.getX();
+        upY = vUp.getY();
+        upZ = vUp.getZ();
+        centerX = location.getX() + vTo.getX() * distance;
+        centerY = location.getY() + vTo.getY() * distance;
+        centerZ = location.getZ() + vTo.getZ() * distance;
+
+        rX = width / nX;
+        rY = height / nY;
+        columns = new double[nX];
+        for (int j = 0; j < nX; ++j)
+            columns[j] = (j - (nX - 1) / 2d) * rX;
+        rows = new double[nY];
+        for (int i = 0; i < nY; ++i)
+            rows[i] = -(i - (nY - 1) / 2d) * rY;
+
+        this.numRays = numRays;
+        blackBoard = new BlackBoard(rX).setDistance(distance).setSampler(sampler).setDensityBeam(numRays);
+    }
+
+    /**
+     * Checks whether the generator was prepared for a frame of the given size and beam density.
+     * @param nX      The amount of pixel columns.
+     * @param nY      The amount of pixel rows.
+     * @param numRays The density of the beams.
+     * @return true if the generator can be reused for that frame.
+     */
+    boolean isFor(int nX, int nY, int numRays) {
+        return columns.length == nX && rows.length == nY && this.numRays == numRays;
+    }
+
+    /**
+     * Gets the amount of pixel columns of the frame.
+     * @return The amount of columns.
+     */
+    int columns() { return columns.length; }
+
+    /**
+     * Gets the amount of pixel rows of the frame.
+     * @return The amount of rows.
+     */
+    int rows() { return rows.length; }
+
+    /**
+     * Generates the ray through the center of a pixel.
+     * @param j Column index of the pixel.
+     * @param i Row index of the pixel.
+     * @return The ray through the pixel.
+     */
+    Ray ray(int j, int i) {
+        return ray(columns[j], rows[i]);
+    }
+
+    /**
+     * Generates the ray through a point of a pixel.
+     * @param j Column index of the pixel.
+     * @param i Row index of the pixel.
+     * @param u The offset of the point to the right of the center of the pixel, in pixel widths.
+     * @param v The offset of the point below the center of the pixel, in pixel heights.
+     * @return The ray through the point.
+     */
+    Ray ray(int j, int i, double u, double v) {
+        return ray(columns[j] + u * rX, rows[i] - v * rY);
+    }
+
+    /**
+     * Generates the ray through a point of the view plane.
+     * @param xJ The offset of the point along the right direction from the center of the view plane.
+     * @param yI The offset of the point along the up direction from the center of the view plane.
+     * @return The ray through the point.
+     */
+    private Ray ray(double xJ, double yI) {
+        double dx = centerX + rightX * xJ + upX * yI - location.getX();
+        double dy = centerY + rightY * xJ + upY * yI - location.getY();
+        double dz = centerZ + rightZ * xJ + upZ * yI - location.getZ();
+        return isZero(dx) && isZero(dy) && isZero(dz) ? new Ray(location, vTo)
+                : new Ray(location, new Vector(dx, dy, dz));
+    }
+
+    /**
+     * Generates a beam of rays through a pixel for super sampling, of the density of the frame.
+     * The jitter of the beam is seeded by the ray through the pixel, so each pixel gets its own samples.
+     * @param j Column index of the pixel.
+     * @param i Row index of the pixel.
+     * @return The rays through the pixel.
+     */
+    List<Ray> rays(int j, int i) {
+        return ray(j, i).calculateBeam(blackBoard);
+    }
+}
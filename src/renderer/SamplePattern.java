@@ -0,0 +1,146 @@
+package renderer;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precomputed table of sample offsets on a blackboard, in disk-local coordinates.
+ * The offsets are relative to the center of the blackboard in units of its width, so all of them
+ * are inside the disk of radius 0.5. A table is calculated once for each kind and density and shared by
+ * all the blackboards and threads, so sampling a beam only transforms the table into the frame of
+ * the ray. A jittered table keeps the centers of its grid cells, and each beam jitters its samples
+ * inside the cells by its own random generator, so the beams of neighbouring pixels aren't correlated.
+ */
+final class SamplePattern {
+    /** The jittered patterns by the amount of grid cells in a row */
+    private static final ConcurrentMap<Integer, SamplePattern> JITTERED = new ConcurrentHashMap<>();
+    /** The Halton patterns by the amount of samples */
+    private static final ConcurrentMap<Integer, SamplePattern> HALTON = new ConcurrentHashMap<>();
+
+    /** The offsets of the samples - the right and up offsets of each sample in turn */
+    private final double[] offsets;
+    /** The size of the cell each sample is jittered in, 0 if the samples aren't jittered */
+    private final double cell;
+
+    /**
+     * Constructs a pattern of the given offsets.
+     * @param offsets The right and up offsets of the samples.
+     * @param cell    The size of the cell each sample is jittered in, 0 for fixed samples.
+     */
+    private SamplePattern(double[] offsets, double cell) {
+        this.offsets = offsets;
+        this.cell = cell;
+    }
+
+    /**
+     * Gets the stratified jittered pattern of a grid of relative x relative cells - the centers of the cells
+     * that reach into the disk of the blackboard. A beam jitters one sample inside each cell, and drops
+     * the samples out of the disk.
+     * @param relative The amount of grid cells in a row.
+     * @return The pattern.
+     */
+    static SamplePattern jittered(int relative) {
+        return JITTERED.computeIfAbsent(relative, SamplePattern::createJittered);
+    }
+
+    /**
+     * Calculates the cell centers of the stratified jittered pattern of a grid.
+     * @param relative The amount of grid cells in a row.
+     * @return The pattern.
+     */
+    private static SamplePattern createJittered(int relative) {
+        double cell = 1d / relative;
+        double align = (relative - 1) / 2d;
+        // a cell reaches into the disk if its center is closer than the radius and half of its diagonal
+        double reach = 0.5 + cell * Math.sqrt(0.5);
+        double[] offsets = new double[2 * relative * relative];
+        int size = 0;
+        for (int i = 0; i < relative; i++)
+            for (int j = 0; j < relative; j++) {
+                double x = (j - align) * cell;
+                double y = -(i - align) * cell;
+                if (x * x + y * y < reach * reach) {
+                    offsets[size++] = x;
+                    offsets[size++] = y;
+                }
+            }
+        return new SamplePattern(Arrays.copyOf(offsets, size), cell);
+    }
+
+    /**
+     * Gets the low discrepancy pattern of the given amount of samples - the Halton sequence of bases 2 and 3
+     * mapped onto the disk of the blackboard by area, so no sample is lost to clipping.
+     * The random rotation of a beam is a Cranley-Patterson rotation of the angular dimension of the sequence.
+     * @param count The amount of samples.
+     * @return The pattern.
+     */
+    static SamplePattern halton(int count) {
+        return HALTON.computeIfAbsent(count, SamplePattern::createHalton);
+    }
+
+    /**
+     * Calculates the Halton pattern of the given amount of samples.
+     * @param count The amount of samples.
+     * @return The pattern.
+     */
+    private static SamplePattern createHalton(int count) {
+        double[] offsets = new double[2 * count];
+        for (int k = 0; k < count; k++) {
+            // the first point of the sequence (0,0) is skipped
+            double r = 0.5 * Math.sqrt(radicalInverse(k + 1, 2));
+            double angle = 2 * Math.PI * radicalInverse(k + 1, 3);
+            offsets[2 * k] = r * Math.cos(angle);
+            offsets[2 * k + 1] = r * Math.sin(angle);
+        }
+        return new SamplePattern(offsets, 0);
+    }
+
+    /**
+     * Calculates the radical inverse of an index - its digits in the given base mirrored around the radix point.
+     * @param index The index.
+     * @param base  The base.
+     * @return The radical inverse in [0,1).
+     */
+    private static double radicalInverse(int index, int base) {
+        double inverse = 0;
+        double digit = 1d / base;
+        for (int i = index; i > 0; i /= base, digit /= base)
+            inverse += (i % base) * digit;
+        return inverse;
+    }
+
+    /**
+     * Gets the size of the cell each sample is jittered in by a beam.
+     * @return The size of the cell in units of the blackboard width, 0 if the samples aren't jittered.
+     */
+    double cell() {
+        return cell;
+    }
+
+    /**
+     * Gets the amount of samples in the pattern, at most - the jittered samples out of the disk are dropped.
+     * @return The amount of samples.
+     */
+    int size() {
+        return offsets.length / 2;
+    }
+
+    /**
+     * Gets the right offset of a sample.
+     * @param index The index of the sample.
+     * @return The offset in units of the blackboard width.
+     */
+    double x(int index) {
+        return offsets[2 * index];
+    }
+
+    /**
+     * Gets the up offset of a sample.
+     * @param index The index of the sample.
+     * @return The offset in units of the blackboard width.
+     */
+    double y(int index) {
+        return offsets[2 * index + 1];
+    }
+}
@@ -23,6 +23,49 @@ public class SimpleRayTracer extends RayTracerBase {
     /** Initial reflection/refraction factor. */
     private static final Double3 INITIAL_K = Double3.ONE;
 
+    /**
+     * The shading data of an intersection point - calculated once when the point is shaded, and shared
+     * by the local effects, the reflection and the refraction of the point.
+     */
+    private static final class ShadingContext {
+        /** The intersection point */
+        private GeoPoint gp;
+        /** The direction of the ray that intersected the geometry */
+        private Vector v;
+        /** The normal to the geometry at the point */
+        private Vector n;
+        /** The dot product of the normal and the direction of the ray, zero if they are orthogonal */
+        private double nv;
+        /** The material of the intersected geometry */
+        private Material material;
+
+        /**
+         * Fills the context for shading an intersection point.
+         * @param gp  The intersection point.
+         * @param ray The ray that intersected the geometry.
+         * @return The context.
+         */
+        private ShadingContext set(GeoPoint gp, Ray ray) {
+            this.gp = gp;
+            v = ray.getDirection();
+            n = gp.getNormal();
+            nv = alignZero(n.dotProduct(v));
+            material = gp.geometry.getMaterial();
+            return this;
+        }
+    }
+
+    /**
+     * The shading contexts of each thread, one for each recursion level - a point is shaded before the
+     * points of its reflection and refraction, so each level has a single context in use at a time.
+     */
+    private final ThreadLocal<ShadingContext[]> contexts = ThreadLocal.withInitial(() -> {
+        ShadingContext[] levels = new ShadingContext[MAX_CALC_COLOR_LEVEL + 1];
+        for (int i = 0; i < levels.length; ++i)
+            levels[i] = new ShadingContext();
+        return levels;
+    });
+
     /**
      * Constructs a SimpleRayTracer with the given scene.
      * @param scene The scene to be rendered.
@@ -62,25 +105,24 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The color at the intersection point.
      */
     private Color calcColor(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Color color = calcLocalEffects(gp, ray, k);
+        ShadingContext context = contexts.get()[level].set(gp, ray);
+        Color color = calcLocalEffects(context, k);
         return 1 == level ? color
-                : color.add(calcGlobalEffects(gp, ray, level, k));
+                : color.add(calcGlobalEffects(context, level, k));
     }
 
     /**
      * Calculates the global lighting effects (reflection and refraction) at a given intersection point.
-     * @param gp    The intersection point.
-     * @param ray   The ray that intersects the geometry.
-     * @param level The recursion level.
-     * @param k     The reflection/refraction factor.
+     * @param context The shading data of the intersection point.
+     * @param level   The recursion level.
+     * @param k       The reflection/refraction factor.
      * @return The color contribution from global lighting effects.
      */
-    private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k) {
-        Material material = gp.geometry.getMaterial();
-        Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        return calcGlossyMattColor(constructRefractedRay(gp, v, n), n, level, k, material, material.kT)
-                .add(calcGlossyMattColor(Objects.requireNonNull(constructReflectedRay(gp, v, n))
+    private Color calcGlobalEffects(ShadingContext context, int level, Double3 k) {
+        Material material = context.material;
+        Vector n = context.n;
+        return calcGlossyMattColor(constructRefractedRay(context), n, level, k, material, material.kT)
+                .add(calcGlossyMattColor(Objects.requireNonNull(constructReflectedRay(context))
                         , n, level, k, material, material.kR));
     }
 
@@ -113,11 +155,11 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private Color calcGlossyMattColor(Ray ray, Vector n, int level, Double3 k, Material material, Double3 kx) {
         Color color = Color.BLACK;
-        Vector dir = ray.getDirection();
+        double dn = ray.getDirection().dotProduct(n);
         List<Ray> rayBeam = ray.calculateBeam(material.blackBoard);
         int counter = 0;
         for (Ray ray1 : rayBeam) {
-            if (dir.dotProduct(n) * ray1.getDirection().dotProduct(n) > 0) {
+            if (dn * ray1.getDirection().dotProduct(n) > 0) {
                 color = color.add(calcGlobalEffect(ray1, kx,level,k));
                 ++counter;
             }
@@ -131,48 +173,45 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The closest intersection point, or null if no intersections are found.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
      * Constructs a refracted ray at a given intersection point.
-     * @param gp The intersection point.
-     * @param v  The direction of the incoming ray.
-     * @param n  The normal vector at the intersection point.
+     * @param context The shading data of the intersection point.
      * @return The refracted ray.
      */
-    private Ray constructRefractedRay(GeoPoint gp, Vector v, Vector n) {
-        return new Ray(gp.point, v, n);
+    private Ray constructRefractedRay(ShadingContext context) {
+        return new Ray(context.gp.point, context.v, context.n);
     }
 
     /**
      * Constructs a reflected ray at a given intersection point.
-     * @param gp The intersection point.
-     * @param v  The direction of the incoming ray.
-     * @param n  The normal vector at the intersection point.
+     * @param context The shading data of the intersection point.
      * @return The reflected ray.
      */
-    private Ray constructReflectedRay(GeoPoint gp, Vector v, Vector n) {
-        double nv = n.dotProduct(v);
-        if (isZero(nv)) return null;
-        Vector vector = v.subtract(n.scale(2 * nv));
-        return new Ray(gp.point, vector, n);
+    private Ray constructReflectedRay(ShadingContext context) {
+        double nv = context.nv;
+        if (nv == 0) return null;
+        Vector vector = context.v.subtract(context.n.scale(2 * nv));
+        return new Ray(context.gp.point, vector, context.n);
     }
 
     /**
      * Calculates the local lighting effects (diffuse and specular reflections) at a given intersection point.
-     * @param gp  The intersection point on the geometry.
-     * @param ray The ray that intersected with the geometry at point gp.
+     * @param context The shading data of the intersection point.
+     * @param k       The reflection/refraction factor.
      * @return The color contribution from local lighting effects at the intersection point.
      */
-    private Color calcLocalEffects(GeoPoint gp, Ray ray, Double3 k) {
-        Vector v = ray.getDirection();
-        Vector n = gp.geometry.getNormal(gp.point);
-        double nv = alignZero(n.dotProduct(v));
+    private Color calcLocalEffects(ShadingContext context, Double3 k) {
+        GeoPoint gp = context.gp;
+        Vector v = context.v;
+        Vector n = context.n;
+        double nv = context.nv;
         Color color = gp.geometry.getEmission();
-        if (isZero(nv))
+        if (nv == 0)
             return color;
-        Material material = gp.geometry.getMaterial();
+        Material material = context.material;
         for (LightSource lightSource : scene.lights) {
             Vector l = lightSource.getL(gp.point);
             double nl = alignZero(n.dotProduct(l));
@@ -210,8 +249,8 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return The specular reflection color.
      */
     private Double3 calcSpecular(Material material, Vector normal, Vector lightVector, double nl, Vector vector) {
-        Vector reflectedVector = lightVector.subtract(normal.scale(2 * nl));
-        double cosTeta = alignZero(-vector.dotProduct(reflectedVector));
+        MutableVector reflectedVector = Scratch.get().v0.set(lightVector).addScaled(normal, -(2 * nl));
+        double cosTeta = alignZero(-reflectedVector.dotProduct(vector));
         return cosTeta <= 0 ? Double3.ZERO : material.kS.scale(Math.pow(cosTeta, material.Shininess));
     }
 
@@ -226,21 +265,8 @@ public class SimpleRayTracer extends RayTracerBase {
     private Double3 transparency(GeoPoint gp, LightSource ls, Vector l, Vector n){
         Vector lDir = l.scale(-1);
         Ray lightRay = new Ray(gp.point ,lDir ,n);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-        if (intersections == null)
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-
-        for (GeoPoint intersectionPoint : intersections) {
-            if (alignZero(intersectionPoint.point.distance(gp.point) - ls.getDistance(gp.point)) <= 0) {
-                ktr = ktr.product(intersectionPoint.geometry.getMaterial().kT);
-                if (ktr.equals(Double3.ZERO))
-                    break;
-            }
-        }
-
-        return ktr;
+        // only occluders between the point and the light source matter, and the first opaque one ends the search
+        return scene.geometries.findTransparency(lightRay, ls.getDistance(gp.point));
     }
 
 }
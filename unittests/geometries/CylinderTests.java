@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -106,5 +108,95 @@ import static org.junit.jupiter.api.Assertions.*;
         assertNull(cylinder.findIntersections(ray), "TC15: findIntersections with ray that is orthogonal to axisRay and does not intersect the cylinder");
     }
 
+    /**
+     * Test method for {@link geometries.Cylinder#findGeoIntersections(Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        // a cylinder of radius 1 along the z axis, from z=0 to z=2
+        Cylinder cylinder = new Cylinder(2, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the shell twice, the points are sorted by their distance
+        List<Intersectable.GeoPoint> result = cylinder.findGeoIntersections(
+                new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0)));
+        assertNotNull(result, "TC01: the ray should cross the shell");
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)), result.stream().map(gp -> gp.point).toList(),
+                "TC01: wrong points");
+        assertEquals(1, result.getFirst().t, 1e-10, "TC01: wrong distance");
+        // TC02: ray enters through the base and exits through the shell
+        result = cylinder.findGeoIntersections(new Ray(new Point(0, 0, -0.5), new Vector(1, 0, 1)));
+        assertNotNull(result, "TC02: the ray should cross the cylinder");
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(1, 0, 0.5)), result.stream().map(gp -> gp.point).toList(),
+                "TC02: wrong points");
+        // TC03: ray starts inside and exits through the top
+        result = cylinder.findGeoIntersections(new Ray(new Point(0.5, 0, 1), new Vector(0, 0, 1)));
+        assertNotNull(result, "TC03: the ray should exit the cylinder");
+        assertEquals(List.of(new Point(0.5, 0, 2)), result.stream().map(gp -> gp.point).toList(), "TC03: wrong point");
+        // TC04: the cylinder is beyond the maximum distance
+        assertNull(cylinder.findGeoIntersections(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0)), 0.5),
+                "TC04: the cylinder is out of the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray along the axis crosses both caps
+        result = cylinder.findGeoIntersections(new Ray(new Point(0, 0, -1), new Vector(0, 0, 1)));
+        assertNotNull(result, "TC11: the ray should cross the caps");
+        assertEquals(List.of(new Point(0, 0, 0), new Point(0, 0, 2)), result.stream().map(gp -> gp.point).toList(),
+                "TC11: wrong points");
+        // TC12: ray crosses the infinite tube above the top
+        assertNull(cylinder.findGeoIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))),
+                "TC12: the ray passes above the cylinder");
+        // TC13: the closest intersection is the first one
+        assertEquals(new Point(-1, 0, 1),
+                cylinder.findClosestGeoIntersection(new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0))).point,
+                "TC13: wrong closest point");
+        // TC14: the closest intersection is on the base, before the shell
+        assertEquals(new Point(0.5, 0, 0),
+                cylinder.findClosestGeoIntersection(new Ray(new Point(0, 0, -0.5), new Vector(1, 0, 1))).point,
+                "TC14: wrong closest point through the base");
+        // TC15: the ray starts inside, the closest intersection is the exit through the top
+        assertEquals(new Point(0.5, 0, 2),
+                cylinder.findClosestGeoIntersection(new Ray(new Point(0.5, 0, 1), new Vector(0, 0, 1))).point,
+                "TC15: wrong closest point from inside");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    public void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Cylinder along the z axis
+        BoundingBox box = new Cylinder(2, 1, new Ray(new Point(1, 0, 0), new Vector(0, 0, 1))).getBoundingBox();
+        assertEquals(new Point(0, -1, 0), box.getMin(), "TC01: wrong minimum of the cylinder's box");
+        assertEquals(new Point(2, 1, 2), box.getMax(), "TC01: wrong maximum of the cylinder's box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: An infinite tube has no box
+        assertFalse(new Tube(1, new Ray(Point.ZERO, new Vector(0, 0, 1))).isBounded(),
+                "TC11: a tube must be unbounded");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#findTransparency(Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometry cylinder = new Cylinder(2, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray passes both walls
+        assertEquals(new Double3(0.25), cylinder.findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC01: wrong transparency through both walls");
+        // TC02: the light is between the walls
+        assertEquals(new Double3(0.5), cylinder.findTransparency(ray, 2),
+                "TC02: wrong transparency through one wall");
 
-}
\ No newline at end of file
+        // =============== Boundary Values Tests ==================
+        // TC11: an opaque cylinder blocks the ray
+        Geometry opaque = new Cylinder(2, 1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        assertEquals(Double3.ZERO, opaque.findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC11: an opaque cylinder should block the ray");
+    }
+}
@@ -1,8 +1,13 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import geometries.Intersectable.GeoPoint;
 import primitives.*;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -58,4 +63,162 @@ public class GeometriesTests {
                 "TC14: Empty collection of geometries - found an intersection");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void testBuildBVH() {
+        Random random = new Random(5784);
+        Geometries brute = new Geometries();
+        Geometries bvh = new Geometries();
+        for (int i = 0; i < 300; ++i) {
+            Point p = new Point(random.nextDouble() * 100 - 50, random.nextDouble() * 100 - 50, random.nextDouble() * 100);
+            Intersectable geometry = i % 2 == 0
+                    ? new Sphere(p, random.nextDouble() * 3 + 0.5)
+                    : new Triangle(p, p.add(new Vector(random.nextDouble() * 5 + 1, 0, 1)),
+                    p.add(new Vector(0, random.nextDouble() * 5 + 1, 2)));
+            brute.add(geometry);
+            bvh.add(geometry);
+        }
+        Plane plane = new Plane(new Point(0, 0, -10), new Vector(0, 0, 1));
+        brute.add(plane);
+        bvh.add(plane);
+        bvh.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every ray finds exactly the same points as the brute force search
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10, -50),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            List<Point> expected = brute.findIntersections(ray);
+            List<Point> result = bvh.findIntersections(ray);
+            if (expected == null)
+                assertNull(result, "TC01: BVH found points the brute force search did not");
+            else {
+                assertNotNull(result, "TC01: BVH missed intersection points");
+                assertEquals(expected.size(), result.size(), "TC01: BVH found a wrong number of points");
+                assertEquals(new HashSet<>(expected), new HashSet<>(result), "TC01: BVH found wrong points");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Limited distance finds the same points as the brute force search
+        Ray ray = new Ray(new Point(0, 0, -50), new Vector(0, 0, 1));
+        assertEquals(brute.findGeoIntersections(ray, 60).size(), bvh.findGeoIntersections(ray, 60).size(),
+                "TC11: BVH found a wrong number of points within a limited distance");
+
+        // TC12: Empty collection of geometries
+        assertNull(new Geometries().buildBVH().findIntersections(ray),
+                "TC12: Empty collection of geometries - found an intersection");
+
+        // TC13: A nested collection that gains a geometry after the hierarchy was built
+        Geometries inner = new Geometries(new Sphere(new Point(0, 0, 0), 1));
+        Geometries outer = new Geometries(inner, new Sphere(new Point(5, 0, 0), 1)).buildBVH();
+        inner.add(new Sphere(new Point(0, 10, 0), 1));
+        assertEquals(new Point(6, 11, 1), outer.getBoundingBox().getMax(),
+                "TC13: the box of the outer collection must cover the added geometry");
+        assertEquals(2, outer.buildBVH().findIntersections(new Ray(new Point(0, 10, -5), new Vector(0, 0, 1))).size(),
+                "TC13: the added geometry was not found through the outer collection");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        Geometries geometries = new Geometries(
+                new Sphere(new Point(2, 0, 0), 1),
+                new Triangle(new Point(0, 1, 0), new Point(0, -1, 0), new Point(-3, 0, 5))
+        );
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Union of the boxes of bounded geometries
+        BoundingBox box = geometries.getBoundingBox();
+        assertEquals(new Point(-3, -1, -1), box.getMin(), "TC01: wrong minimum of the union box");
+        assertEquals(new Point(3, 1, 5), box.getMax(), "TC01: wrong maximum of the union box");
+
+        // TC02: A ray that misses the union box finds no intersections
+        assertNull(geometries.findIntersections(new Ray(new Point(0, 5, 0), new Vector(1, 0, 0))),
+                "TC02: ray outside the union box found an intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Adding an unbounded geometry makes the whole collection unbounded
+        geometries.add(new Plane(new Point(0, 0, -2), new Vector(0, 0, 1)));
+        assertFalse(geometries.isBounded(), "TC11: collection with a plane must be unbounded");
+
+        // TC12: Empty collection of geometries
+        assertNull(new Geometries().getBoundingBox(), "TC12: empty collection must have no box");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Random random = new Random(359);
+        Geometries geometries = new Geometries(new Plane(new Point(0, 0, -10), new Vector(0, 0, 1)));
+        for (int i = 0; i < 200; ++i) {
+            Point p = new Point(random.nextDouble() * 60 - 30, random.nextDouble() * 60 - 30, random.nextDouble() * 100);
+            geometries.add(i % 2 == 0
+                    ? new Sphere(p, random.nextDouble() * 3 + 0.5)
+                    : new Triangle(p, p.add(new Vector(random.nextDouble() * 5 + 1, 0, 1)),
+                    p.add(new Vector(0, random.nextDouble() * 5 + 1, 2))));
+        }
+        Geometries bvh = new Geometries(geometries).buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The closest point is the closest of all the intersections, with and without a hierarchy
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10, -50),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, 1));
+            GeoPoint expected = ray.findClosestGeoPoint(geometries.findGeoIntersections(ray));
+            GeoPoint result = geometries.findClosestGeoIntersection(ray);
+            assertEquals(expected, result, "TC01: wrong closest point");
+            assertEquals(expected, bvh.findClosestGeoIntersection(ray), "TC01: wrong closest point with BVH");
+            if (result != null)
+                assertEquals(ray.getHead().distance(result.point), result.t, 1e-9, "TC01: wrong distance t");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Ray pointing away from all the geometries
+        assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, -50), new Vector(0, 0, -1))),
+                "TC11: ray pointing away found an intersection");
+
+        // TC12: Empty collection of geometries
+        assertNull(new Geometries().findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, 1))),
+                "TC12: Empty collection of geometries - found an intersection");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findTransparency(primitives.Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometry glass = new Sphere(new Point(0, 0, 5), 1).setMaterial(new Material().setKt(0.5));
+        Geometry wall = new Plane(new Point(0, 0, 10), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(glass, wall);
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The opaque wall blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC01: opaque geometry must block the ray");
+
+        // TC02: Only the transparent sphere (two points) is before the light
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 8),
+                "TC02: wrong transparency through the transparent sphere");
+
+        // TC03: Nothing is before the light
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 3),
+                "TC03: geometries behind the light must not block it");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Same results with a hierarchy
+        geometries.buildBVH();
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC11: opaque geometry must block the ray with BVH");
+        assertEquals(new Double3(0.25), geometries.findTransparency(ray, 8),
+                "TC11: wrong transparency through the transparent sphere with BVH");
+    }
+
+}
@@ -168,4 +168,41 @@ public class PolygonTests {
               "Additional Test: Wrong intersection point");
    }
 
+   /**
+    * Test method for {@link Polygon#findIntersections(Ray)} with a polygon of more vertices.
+    */
+   @Test
+   void testFindIntersectionsHexagon() {
+      // a regular hexagon in the plane x + y + z = 0 (no dominant axis of the normal)
+      Vector u = new Vector(1, -1, 0).normalize();
+      Vector w = new Vector(1, 1, -2).normalize();
+      Point[] hexagon = new Point[6];
+      for (int i = 0; i < 6; ++i)
+      {
+         double cos = 2 * Math.cos(i * Math.PI / 3), sin = 2 * Math.sin(i * Math.PI / 3);
+         hexagon[i] = new Point(u.getX() * cos + w.getX() * sin, u.getY() * cos + w.getY() * sin,
+                 u.getZ() * cos + w.getZ() * sin);
+      }
+      Polygon polygon = new Polygon(hexagon);
+      Vector down = new Vector(-1, -1, -1);
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: Ray intersects inside the hexagon
+      List<Point> result = polygon.findIntersections(new Ray(new Point(1, 1, 1).add(u), down));
+      assertNotNull(result, "TC01: Ray intersects inside the hexagon");
+      assertEquals(u, result.getFirst().subtract(Point.ZERO), "TC01: Wrong intersection point");
+      // TC02: Ray outside the hexagon against a vertex
+      assertNull(polygon.findIntersections(new Ray(new Point(1, 1, 1).add(u.scale(3)), down)),
+              "TC02: Ray outside the hexagon");
+
+      // =============== Boundary Values Tests ==================
+      // TC11: Ray through a vertex of the hexagon
+      assertNull(polygon.findIntersections(new Ray(hexagon[0].add(new Vector(1, 1, 1)), down)),
+              "TC11: Ray through a vertex of the hexagon");
+      // TC12: Ray through the middle of an edge of the hexagon
+      Point middle = hexagon[1].add(hexagon[2].subtract(hexagon[1]).scale(0.5));
+      assertNull(polygon.findIntersections(new Ray(middle.add(new Vector(1, 1, 1)), down)),
+              "TC12: Ray through an edge of the hexagon");
+   }
+
 }
\ No newline at end of file
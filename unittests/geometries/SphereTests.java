@@ -133,4 +133,35 @@ public class SphereTests {
                 "TC22: Ray's line is outside and orthogonal to the sphere's center line");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Sphere#findClosestGeoIntersection(primitives.Ray, double)}.
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        Sphere sphere = new Sphere(new Point(1, 0, 0), 1d);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray crosses the sphere - the nearer point with its distance
+        Intersectable.GeoPoint gp = sphere.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)));
+        assertNotNull(gp, "TC01: the ray should cross the sphere");
+        assertEquals(new Point(0, 0, 0), gp.point, "TC01: wrong closest point");
+        assertEquals(1, gp.t, 1e-10, "TC01: wrong distance");
+        // TC02: ray starts inside the sphere - the exit point
+        gp = sphere.findClosestGeoIntersection(new Ray(new Point(0.5, 0, 0), new Vector(1, 0, 0)));
+        assertNotNull(gp, "TC02: the ray should exit the sphere");
+        assertEquals(new Point(2, 0, 0), gp.point, "TC02: wrong closest point");
+        // TC03: the sphere is beyond the maximum distance
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 0.5),
+                "TC03: the sphere is out of the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: only the nearer point is within the maximum distance
+        List<Intersectable.GeoPoint> result = sphere.findGeoIntersections(
+                new Ray(new Point(-1, 0, 0), new Vector(1, 0, 0)), 2);
+        assertNotNull(result, "TC11: the nearer point is within the maximum distance");
+        assertEquals(List.of(new Point(0, 0, 0)), result.stream().map(p -> p.point).toList(), "TC11: wrong points");
+        // TC12: ray starts after the sphere
+        assertNull(sphere.findClosestGeoIntersection(new Ray(new Point(3, 0, 0), new Vector(1, 0, 0))),
+                "TC12: the sphere is behind the ray");
+    }
+}
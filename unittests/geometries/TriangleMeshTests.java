@@ -0,0 +1,132 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class.
+ * @author Riki Rubin
+ */
+public class TriangleMeshTests {
+
+    /** A unit square in the xy plane made of two triangles sharing the diagonal */
+    private final TriangleMesh square = new TriangleMesh(
+            new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0},
+            new int[]{0, 1, 2, 0, 2, 3});
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}.
+     */
+    @Test
+    public void testConstructor() {
+        // TC01: no triangles
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(new double[]{0, 0, 0}, new int[0]),
+                "TC01: a mesh without triangles should throw");
+        // TC02: index out of the vertices
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[]{0, 1, 3}),
+                "TC02: an index out of the vertices should throw");
+        // TC03: vertices not in triads
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "TC03: vertices not in triads should throw");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(primitives.Point)}.
+     */
+    @Test
+    public void testGetNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: point inside a triangle
+        assertEquals(new Vector(0, 0, 1), square.getNormal(new Point(0.25, 0.75, 0)),
+                "TC01: wrong normal");
+        // TC02: the intersection point knows its triangle
+        GeoPoint gp = square.findClosestGeoIntersection(new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1)));
+        assertEquals(new Vector(0, 0, 1), square.getNormal(gp), "TC02: wrong normal of the intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: point out of the mesh
+        assertThrows(IllegalArgumentException.class, () -> square.getNormal(new Point(2, 2, 0)),
+                "TC11: a point out of the mesh should throw");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray)}.
+     */
+    @Test
+    public void testFindGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray hits the first triangle
+        List<GeoPoint> result = square.findGeoIntersections(new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1)));
+        assertNotNull(result, "TC01: the ray should hit the mesh");
+        assertEquals(1, result.size(), "TC01: wrong number of points");
+        assertEquals(new Point(0.75, 0.25, 0), result.getFirst().point, "TC01: wrong point");
+        assertEquals(1, result.getFirst().t, 1e-10, "TC01: wrong distance");
+        // TC02: ray misses the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(2, 0.5, 1), new Vector(0, 0, -1))),
+                "TC02: the ray should miss the mesh");
+        // TC03: ray starts after the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(0.5, 0.25, 1), new Vector(0, 0, 1))),
+                "TC03: the ray should miss the mesh behind it");
+        // TC04: the mesh is farther than the maximum distance
+        assertNull(square.findGeoIntersections(new Ray(new Point(0.75, 0.25, 1), new Vector(0, 0, -1)), 0.5),
+                "TC04: the mesh is out of the maximum distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray through the shared diagonal is on the edges of both triangles - no hit, as for a Triangle
+        Ray diagonal = new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1));
+        assertNull(new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(1, 1, 0)).findIntersections(diagonal),
+                "TC11: a ray through the edge should not hit a triangle");
+        assertNull(square.findClosestGeoIntersection(diagonal),
+                "TC11: the ray through the shared edge should not hit the mesh, as it doesn't hit its triangles");
+        // TC12: ray parallel to the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(-1, 0.5, 0), new Vector(1, 0, 0))),
+                "TC12: a ray in the plane of the mesh should not hit it");
+        // TC13: ray through a vertex of the mesh
+        assertNull(square.findGeoIntersections(new Ray(new Point(1, 0, 1), new Vector(0, 0, -1))),
+                "TC13: a ray through a vertex should not hit the mesh");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        // TC01: a random soup of triangles agrees with the closest of all the intersections
+        Random random = new Random(7);
+        int triangles = 500;
+        double[] vertices = new double[9 * triangles];
+        int[] indices = new int[3 * triangles];
+        for (int i = 0; i < triangles; ++i) {
+            double x = random.nextDouble() * 20, y = random.nextDouble() * 20, z = random.nextDouble() * 20;
+            for (int vertex = 0; vertex < 3; ++vertex) {
+                vertices[9 * i + 3 * vertex] = x + random.nextDouble();
+                vertices[9 * i + 3 * vertex + 1] = y + random.nextDouble();
+                vertices[9 * i + 3 * vertex + 2] = z + random.nextDouble();
+                indices[3 * i + vertex] = 3 * i + vertex;
+            }
+        }
+        TriangleMesh mesh = new TriangleMesh(vertices, indices);
+        for (int i = 0; i < 200; ++i) {
+            Ray ray = new Ray(new Point(-5, random.nextDouble() * 20, random.nextDouble() * 20),
+                    new Vector(1, random.nextDouble() - 0.5, random.nextDouble() - 0.5));
+            List<GeoPoint> all = mesh.findGeoIntersections(ray);
+            GeoPoint closest = mesh.findClosestGeoIntersection(ray);
+            if (all == null) {
+                assertNull(closest, "TC01: no intersection expected");
+                continue;
+            }
+            assertNotNull(closest, "TC01: an intersection expected");
+            assertEquals(ray.findClosestGeoPoint(all).point, closest.point, "TC01: wrong closest point");
+            assertEquals(Double3.ZERO, mesh.findTransparency(ray, Double.POSITIVE_INFINITY),
+                    "TC01: an opaque mesh should block the ray");
+        }
+    }
+}
@@ -86,4 +86,22 @@ public class TriangleTests {
                     "TC13: Ray starts on a vertex of the triangle");
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Triangle#findClosestGeoIntersection(primitives.Ray)}.
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        Triangle triangle = new Triangle(new Point(0, 0, 0), new Point(4, 0, 0), new Point(0, 4, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the intersection carries its distance, normal and barycentric coordinates
+        Intersectable.GeoPoint gp = triangle.findClosestGeoIntersection(
+                new Ray(new Point(1, 2, 3), new Vector(0, 0, -1)));
+        assertNotNull(gp, "TC01: the ray should hit the triangle");
+        assertEquals(3, gp.t, 1e-10, "TC01: wrong distance");
+        assertEquals(0.25, gp.u, 1e-10, "TC01: wrong weight of the second vertex");
+        assertEquals(0.5, gp.v, 1e-10, "TC01: wrong weight of the third vertex");
+        assertEquals(triangle.getNormal(gp.point), gp.getNormal(), "TC01: wrong normal");
+        assertSame(gp.getNormal(), gp.getNormal(), "TC01: the normal should be calculated once");
+    }
+}
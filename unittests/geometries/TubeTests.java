@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -101,4 +103,61 @@ public  void testGetNormal() {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Tube#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    public void testFindGeoIntersections() {
+        // a tube of radius 1 around the z axis
+        Tube tube = new Tube(1, new Ray(Point.ZERO, new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the intersections carry their distances in ascending order
+        List<Intersectable.GeoPoint> result = tube.findGeoIntersections(new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0)));
+        assertNotNull(result, "TC01: the ray should cross the tube");
+        assertEquals(2, result.size(), "TC01: wrong number of points");
+        assertEquals(2, result.get(0).t, 1e-10, "TC01: wrong distance of the first point");
+        assertEquals(4, result.get(1).t, 1e-10, "TC01: wrong distance of the second point");
+        // TC02: the second intersection is beyond the maximum distance
+        result = tube.findGeoIntersections(new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0)), 3);
+        assertNotNull(result, "TC02: the ray should cross the tube");
+        assertEquals(List.of(new Point(-1, 0, 5)), result.stream().map(gp -> gp.point).toList(), "TC02: wrong point");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: ray starts at the head of the axis
+        result = tube.findGeoIntersections(new Ray(Point.ZERO, new Vector(1, 0, 1)));
+        assertNotNull(result, "TC11: the ray should exit the tube");
+        assertEquals(List.of(new Point(1, 0, 1)), result.stream().map(gp -> gp.point).toList(), "TC11: wrong point");
+        // TC12: the closest intersection is the first one
+        assertEquals(new Point(-1, 0, 5),
+                tube.findClosestGeoIntersection(new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0))).point,
+                "TC12: wrong closest point");
+        // TC13: the ray starts inside, the closest intersection is the exit
+        assertEquals(new Point(1, 0, 1),
+                tube.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(1, 0, 1))).point,
+                "TC13: wrong closest point from inside");
+    }
+
+    /**
+     * Test method for {@link geometries.Tube#findTransparency(Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometry tube = new Tube(1, new Ray(Point.ZERO, new Vector(0, 0, 1))).setMaterial(new Material().setKt(0.5));
+        Ray ray = new Ray(new Point(-3, 0, 5), new Vector(1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray passes both walls
+        assertEquals(new Double3(0.25), tube.findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC01: wrong transparency through both walls");
+        // TC02: the light is between the walls
+        assertEquals(new Double3(0.5), tube.findTransparency(ray, 3),
+                "TC02: wrong transparency through one wall");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: an opaque tube blocks the ray
+        assertEquals(Double3.ZERO,
+                new Tube(1, new Ray(Point.ZERO, new Vector(0, 0, 1))).findTransparency(ray, Double.POSITIVE_INFINITY),
+                "TC11: an opaque tube should block the ray");
+    }
+}
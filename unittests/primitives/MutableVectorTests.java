@@ -0,0 +1,78 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.MutableVector class.
+ * @author Riki and Shirel
+ */
+public class MutableVectorTests {
+
+    private final Vector v1 = new Vector(1, 2, 3);
+    private final Vector v2 = new Vector(0, 3, -2);
+
+    /**
+     * Test method for {@link primitives.MutableVector#setCrossProduct(MutableVector, MutableVector)}
+     */
+    @Test
+    public void testSetCrossProduct() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The cross product equals the one of the immutable vectors, in place
+        MutableVector m1 = new MutableVector().set(v1);
+        MutableVector m2 = new MutableVector().set(v2);
+        MutableVector result = new MutableVector();
+        assertSame(result, result.setCrossProduct(m1, m2), "TC01: ERROR: the operation should be in place");
+        assertEquals(v1.crossProduct(v2), result.toVector(), "TC01: ERROR: wrong cross product");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The cross product of parallel vectors is zero without an exception
+        assertEquals(0, result.setCrossProduct(m1, m1).lengthSquared(),
+                "TC11: ERROR: cross product of parallel vectors should be zero");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableVector#normalize()}
+     */
+    @Test
+    public void testNormalize() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The normalized vector equals the one of the immutable vector
+        assertEquals(v1.normalize(), new MutableVector().set(v1).normalize().toVector(),
+                "TC01: ERROR: wrong normalized vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: A zero vector remains zero
+        assertEquals(0, new MutableVector().normalize().length(), "TC11: ERROR: zero vector should remain zero");
+    }
+
+    /**
+     * Test method for {@link primitives.MutableVector#addScaled(Point, double)}
+     */
+    @Test
+    public void testAddScaled() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Adding a scaled vector equals the immutable operations
+        assertEquals(v1.add(v2.scale(-2)), new MutableVector().set(v1).addScaled(v2, -2).toVector(),
+                "TC01: ERROR: wrong sum");
+        // TC02: The difference of points equals the immutable subtraction
+        assertEquals(v1.subtract(v2), new MutableVector().set(v1).subtract(v2).toVector(),
+                "TC02: ERROR: wrong difference");
+    }
+
+    /**
+     * Test method for {@link primitives.Scratch#get()}
+     */
+    @Test
+    public void testScratch() throws InterruptedException {
+        // TC01: The registers are kept per thread
+        Scratch scratch = Scratch.get();
+        assertSame(scratch, Scratch.get(), "TC01: ERROR: the registers should be kept for the thread");
+        Scratch[] other = new Scratch[1];
+        Thread thread = new Thread(() -> other[0] = Scratch.get());
+        thread.start();
+        thread.join();
+        assertNotSame(scratch, other[0], "TC01: ERROR: each thread should have its own registers");
+    }
+}
@@ -3,6 +3,7 @@ package primitives;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -45,6 +46,41 @@ public class PointTests {
                 "TC02: ERROR: Point subtract does not throw an exception");
     }
 
+    /**
+     * Test method for {@link primitives.Point#subtractOrNull(primitives.Point)}.
+     */
+    @Test
+    public void testSubtractOrNull() {
+        // =======Equivalence Partitions Tests=======
+        // TC01: testing the subtract between two points (simple test)
+        assertEquals(new Vector(6, 4, 2),
+                p2.subtractOrNull(p1),
+                "TC01: ERROR: Point subtractOrNull does not work correctly");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: subtraction of a point itself gives null instead of an exception
+        assertNull(p1.subtractOrNull(p1),
+                "TC11: ERROR: Point subtractOrNull of the point itself should be null");
+    }
+
+    /**
+     * Test method for {@link primitives.Point#addScaled(primitives.Vector, double)}.
+     */
+    @Test
+    public void testAddScaled() {
+        // =======Equivalence Partitions Tests=======
+        // TC01: testing the adding of point and scaled vector (simple test)
+        assertEquals(new Point(-1, -2, -3),
+                p1.addScaled(v1, 2),
+                "TC01: ERROR: Point addScaled does not work correctly");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: adding a vector scaled by zero gives the point itself
+        assertEquals(p1,
+                p1.addScaled(v1, 0),
+                "TC11: ERROR: Point addScaled by zero does not work correctly");
+    }
+
     /**
      * Test method for {@link primitives.Point#distanceSquared(primitives.Point)}.
      */
@@ -0,0 +1,87 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.AdaptiveSampler class.
+ * @author Riki and Shirel
+ */
+class AdaptiveSamplerTests {
+   /** The location of the camera */
+   private final Point location = new Point(0, 0, 0);
+   /** The generator of the rays of a 4x4 pixels view plane */
+   private final PrimaryRayGenerator primaryRays = new PrimaryRayGenerator(location, new Vector(0, 0, -1),
+           new Vector(0, 1, 0), new Vector(1, 0, 0), 4, 4, 1, 4, 4, 1, BlackBoard.Sampler.JITTERED);
+
+   /** A ray tracer of a white half plane to the right of an edge, counting the traced rays */
+   private static class EdgeTracer extends RayTracerBase {
+      /** The x coordinate of the edge on the view plane */
+      private final double edge;
+      /** The amount of traced rays */
+      private int count = 0;
+
+      /**
+       * Constructs the tracer of an edge.
+       * @param edge The x coordinate of the edge on the view plane.
+       */
+      EdgeTracer(double edge) {
+         super(new Scene("Test"));
+         this.edge = edge;
+      }
+
+      @Override
+      public Color traceRay(Ray ray) {
+         ++count;
+         Vector dir = ray.getDirection();
+         return dir.getX() / -dir.getZ() > edge ? new Color(255, 255, 255) : Color.BLACK;
+      }
+   }
+
+   /**
+    * Test method for {@link AdaptiveSampler#color(int, int)}.
+    */
+   @Test
+   void testColor() {
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: a flat pixel costs its center and the corners not shared with the pixels before it
+      EdgeTracer flat = new EdgeTracer(10);
+      AdaptiveSampler sampler = new AdaptiveSampler(flat, primaryRays, 3, 4);
+      for (int j = 0; j < 4; ++j)
+         assertEquals(Color.BLACK.toString(), sampler.color(j, 0).toString(), "TC01: wrong color of a flat pixel");
+      assertEquals(5 + 3 * 3, flat.count, "TC01: the corners of the previous pixel of the row should be reused");
+      flat.count = 0;
+      for (int j = 0; j < 4; ++j)
+         sampler.color(j, 1);
+      assertEquals(3 + 3 * 2, flat.count, "TC01: the corners of the previous row should be reused");
+
+      // TC02: a pixel crossed by an edge is refined to about its coverage
+      EdgeTracer edge = new EdgeTracer(-1.4);
+      sampler = new AdaptiveSampler(edge, primaryRays, 3, 4);
+      Color color = sampler.color(0, 0);
+      assertEquals(0.4 * 255, color.getRed(), 255 / 8d, "TC02: the white side should cover 40% of the pixel");
+      assertTrue(edge.count > 5, "TC02: the pixel on the edge should be subdivided");
+
+      // =============== Boundary Values Tests ==================
+      // TC11: without subdivision the corners and the center are averaged
+      edge = new EdgeTracer(-1.75);
+      sampler = new AdaptiveSampler(edge, primaryRays, 0, 4);
+      assertEquals(new Color(153, 153, 153).toString(), sampler.color(0, 0).toString(),
+              "TC11: wrong average of the corners and the center");
+      assertEquals(5, edge.count, "TC11: only the corners and the center should be traced");
+
+      // TC12: the corners of a pixel don't depend on the order of the pixels
+      EdgeTracer forward = new EdgeTracer(0.3), backward = new EdgeTracer(0.3);
+      AdaptiveSampler forwardSampler = new AdaptiveSampler(forward, primaryRays, 3, 4);
+      AdaptiveSampler backwardSampler = new AdaptiveSampler(backward, primaryRays, 3, 4);
+      Color[] colors = new Color[4];
+      for (int j = 0; j < 4; ++j)
+         colors[j] = forwardSampler.color(j, 3);
+      for (int j = 3; j >= 0; --j)
+         assertEquals(colors[j].toString(), backwardSampler.color(j, 3).toString(),
+                 "TC12: the color of a pixel should not depend on the order of the pixels");
+   }
+}
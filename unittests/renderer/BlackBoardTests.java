@@ -0,0 +1,114 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.BlackBoard class.
+ * @author Riki and Shirel
+ */
+class BlackBoardTests {
+   /** A blackboard of a glossy material */
+   private final BlackBoard blackBoard = new BlackBoard(0.5).setDensityBeam(9).setDistance(3);
+   /** A ray to sample a beam around */
+   private final Ray ray = new Ray(new Point(1, 2, 3), new Vector(1, -1, 2));
+
+   /**
+    * Test method for {@link BlackBoard#setRays(Ray)}.
+    */
+   @Test
+   void testSetRays() throws InterruptedException {
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: the points are on the blackboard around the ray
+      List<Point> points = blackBoard.setRays(ray);
+      assertFalse(points.isEmpty(), "TC01: the beam should not be empty");
+      Point center = ray.getPoint(3);
+      for (Point point : points)
+         assertTrue(point.distance(center) < 0.25, "TC01: a point is out of the blackboard");
+
+      // TC02: the same ray gets the same beam, also from another thread
+      assertEquals(points, blackBoard.setRays(ray), "TC02: the beam of the same ray should be the same");
+      List<?>[] other = new List<?>[1];
+      Thread thread = new Thread(() -> other[0] = blackBoard.setRays(ray));
+      thread.start();
+      thread.join();
+      assertEquals(points, other[0], "TC02: the beam should not depend on the thread");
+
+      // TC03: another seed gets another beam
+      assertNotEquals(points, blackBoard.setRays(ray, 1), "TC03: another seed should jitter the beam differently");
+
+      // TC04: the beams of two rays are jittered independently, not only rotated - a rotation would keep
+      // the distances of the points from the center
+      Ray moved = new Ray(new Point(1, 3, 3), ray.getDirection());
+      assertNotEquals(radii(points, center), radii(blackBoard.setRays(moved), moved.getPoint(3)),
+              "TC04: the beams of different rays should not be rotations of the same pattern");
+   }
+
+   /**
+    * Calculates the sorted distances of the points of a beam from the center of its blackboard,
+    * rounded so that a rotation of the beam keeps them.
+    * @param points the points of the beam
+    * @param center the center of the blackboard
+    * @return the sorted distances
+    */
+   private static List<Long> radii(List<Point> points, Point center) {
+      return points.stream().map(point -> Math.round(point.distance(center) * 1e9)).sorted().toList();
+   }
+
+   /**
+    * Test method for {@link BlackBoard#forEachRay(Ray, java.util.function.Consumer)}.
+    */
+   @Test
+   void testForEachRay() {
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: the rays of the beam go through the points of the blackboard
+      List<Point> points = blackBoard.setRays(ray);
+      List<Ray> rays = new ArrayList<>();
+      blackBoard.forEachRay(ray, rays::add);
+      assertEquals(points.size(), rays.size(), "TC01: wrong number of rays");
+      assertTrue(rays.size() <= blackBoard.beamSize(), "TC01: the beam is larger than its size");
+      for (int i = 0; i < rays.size(); ++i) {
+         assertEquals(ray.getHead(), rays.get(i).getHead(), "TC01: the beam should start at the head of the ray");
+         assertEquals(points.get(i).subtract(ray.getHead()).normalize(), rays.get(i).getDirection(),
+                 "TC01: a ray doesn't go through its point");
+      }
+
+      // =============== Boundary Values Tests ==================
+      // TC11: a blackboard without width has only the ray itself
+      List<Ray> single = new ArrayList<>();
+      new BlackBoard(0).forEachRay(ray, single::add);
+      assertEquals(List.of(ray), single, "TC11: the beam of a point blackboard should be the ray itself");
+   }
+
+   /**
+    * Test method for {@link BlackBoard#setSampler(BlackBoard.Sampler)}.
+    */
+   @Test
+   void testSetSampler() {
+      BlackBoard halton = new BlackBoard(0.5).setDensityBeam(4).setDistance(3).setSampler(BlackBoard.Sampler.HALTON);
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: a low discrepancy beam has all its samples on the blackboard
+      List<Point> points = halton.setRays(ray);
+      assertEquals(16, points.size(), "TC01: no sample of a low discrepancy beam should be lost");
+      Point center = ray.getPoint(3);
+      double x = 0, y = 0, z = 0;
+      for (Point point : points) {
+         assertTrue(point.distance(center) < 0.25, "TC01: a point is out of the blackboard");
+         x += point.getX();
+         y += point.getY();
+         z += point.getZ();
+      }
+      // TC02: the samples are spread evenly around the center
+      assertTrue(new Point(x / 16, y / 16, z / 16).distance(center) < 0.05, "TC02: the samples are not even");
+
+      // =============== Boundary Values Tests ==================
+      // TC11: no sampler
+      assertThrows(IllegalArgumentException.class, () -> halton.setSampler(null), "TC11: a null sampler should throw");
+   }
+}
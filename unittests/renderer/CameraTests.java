@@ -61,4 +61,22 @@ class CameraTests {
 
    }
 
+   /**
+    * Test method for {@link Camera#constructRays(int, int, int, int, int)}.
+    */
+   @Test
+   void testConstructRays() {
+      Camera camera = cameraBuilder.setVpSize(8, 8).build();
+
+      // ============ Equivalence Partitions Tests ==============
+      // EP01: the beams of the same frame are the same
+      assertEquals(camera.constructRays(4, 4, 1, 1, 9), camera.constructRays(4, 4, 1, 1, 9), "Bad beam");
+
+      // =============== Boundary Values Tests ==================
+      // BV01: the beams follow the camera when it moves
+      camera.translate(new Vector(1, 0, 0));
+      for (Ray ray : camera.constructRays(4, 4, 1, 1, 9))
+         assertEquals(new Point(1, 0, 0), ray.getHead(), "The beam should start at the moved camera");
+   }
+
 }
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import primitives.Color;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Unit tests for renderer.ImageWriterTests class.
@@ -38,4 +39,23 @@ class ImageWriterTests {
         imageWriter.writeToImage();
     }
 
+    /**
+     * Test method for {@link ImageWriter#accumulatePixel(int, int, Color)}
+     */
+    @Test
+    void testAccumulatePixel() {
+        ImageWriter imageWriter = new ImageWriter("Test 2", 800, 500);
+        // TC01: two passes of pink and blue stripes are averaged into each pixel
+        for (int i = 0; i < imageWriter.getNx(); i++) {
+            for (int j = 0; j < imageWriter.getNy(); j++) {
+                imageWriter.accumulatePixel(i, j, new Color(pink));
+                imageWriter.accumulatePixel(i, j, new Color(i % 50 == 0 || j % 50 == 0 ? blue : pink));
+            }
+        }
+        imageWriter.writeToImage(2);
+        // TC02: Zero samples
+        assertThrows(IllegalArgumentException.class, () -> imageWriter.writeToImage(0),
+                "writeToImage() should throw an exception when no samples were accumulated");
+    }
+
 }
\ No newline at end of file
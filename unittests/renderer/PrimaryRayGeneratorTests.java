@@ -0,0 +1,80 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for renderer.PrimaryRayGenerator class.
+ * @author Riki and Shirel
+ */
+class PrimaryRayGeneratorTests {
+   /** The location of the camera */
+   private final Point location = new Point(1, 2, 3);
+   /** The direction of the camera */
+   private final Vector vTo = new Vector(0, 0, -1);
+   /** The up direction of the camera */
+   private final Vector vUp = new Vector(0, 1, 0);
+
+   /**
+    * Test method for {@link PrimaryRayGenerator#ray(int, int)}.
+    */
+   @Test
+   void testRay() {
+      Camera camera = Camera.getBuilder()
+              .setRayTracer(new SimpleRayTracer(new Scene("Test")))
+              .setImageWriter(new ImageWriter("Test", 1, 1))
+              .setLocation(location)
+              .setDirection(vTo, vUp)
+              .setVpSize(7, 5)
+              .setVpDistance(10)
+              .build();
+      PrimaryRayGenerator generator = new PrimaryRayGenerator(location, vTo, vUp, vTo.crossProduct(vUp),
+              7, 5, 10, 7, 5, 1, BlackBoard.Sampler.JITTERED);
+
+      // TC01: the generated rays are the rays constructed by the camera through every pixel
+      for (int i = 0; i < 5; ++i)
+         for (int j = 0; j < 7; ++j)
+            assertEquals(camera.constructRay(7, 5, j, i), generator.ray(j, i),
+                    "TC01: wrong ray through pixel (" + j + "," + i + ")");
+   }
+
+   /**
+    * Test method for {@link PrimaryRayGenerator#rays(int, int)}.
+    */
+   @Test
+   void testRays() throws InterruptedException {
+      PrimaryRayGenerator generator = new PrimaryRayGenerator(location, vTo, vUp, vTo.crossProduct(vUp),
+              7, 5, 10, 7, 5, 9, BlackBoard.Sampler.JITTERED);
+
+      // TC01: a beam through a pixel starts at the camera
+      List<Ray> rays = generator.rays(3, 2);
+      assertFalse(rays.isEmpty(), "TC01: the beam should not be empty");
+      for (Ray ray : rays)
+         assertEquals(location, ray.getHead(), "TC01: the beam should start at the camera");
+      // the beam is sampled from a grid of relative x relative cells
+      int relative = (int) (9 * Math.sqrt(1.27324));
+      assertTrue(rays.size() <= relative * relative, "TC01: the beam should have the density of the frame");
+
+      // TC02: the shared blackboard gives the same beam from several threads at once
+      Thread[] threads = new Thread[4];
+      boolean[] same = new boolean[threads.length];
+      for (int t = 0; t < threads.length; ++t) {
+         int thread = t;
+         threads[t] = new Thread(() -> {
+            same[thread] = true;
+            for (int k = 0; k < 100; ++k)
+               same[thread] &= rays.equals(generator.rays(3, 2));
+         });
+         threads[t].start();
+      }
+      for (Thread thread : threads)
+         thread.join();
+      for (int t = 0; t < threads.length; ++t)
+         assertTrue(same[t], "TC02: the beam of a pixel should not depend on the thread");
+   }
+}
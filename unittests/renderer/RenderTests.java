@@ -1,6 +1,7 @@
 package renderer;
 
 import static java.awt.Color.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 import XML.SceneXML;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,9 @@ import lighting.AmbientLight;
 import primitives.*;
 import scene.Scene;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
 
 /**
  * Test rendering a basic image
@@ -29,6 +33,75 @@ public class RenderTests {
             .setVpDistance(100)
             .setVpSize(500, 500);
 
+    /**
+     * Checks that two images of the same size have exactly the same pixels
+     * @param expected the expected image
+     * @param actual   the checked image
+     * @param message  the message of a failure
+     */
+    private static void assertSameImage(ImageWriter expected, ImageWriter actual, String message) {
+        for (int i = 0; i < expected.getNy(); ++i)
+            for (int j = 0; j < expected.getNx(); ++j) {
+                Color e = expected.getPixel(j, i), a = actual.getPixel(j, i);
+                if (e.getRed() != a.getRed() || e.getGreen() != a.getGreen() || e.getBlue() != a.getBlue())
+                    fail(message + " - at pixel (" + j + ", " + i + ")");
+            }
+    }
+
+    /**
+     * Checks that every pixel of a partially rendered image is either the same as in the complete image
+     * or untouched (black)
+     * @param expected the complete image
+     * @param actual   the partially rendered image
+     * @param message  the message of a failure
+     */
+    private static void assertRenderedOrUntouched(ImageWriter expected, ImageWriter actual, String message) {
+        for (int i = 0; i < expected.getNy(); ++i)
+            for (int j = 0; j < expected.getNx(); ++j) {
+                Color e = expected.getPixel(j, i), a = actual.getPixel(j, i);
+                boolean untouched = a.getRed() == 0 && a.getGreen() == 0 && a.getBlue() == 0;
+                if (!untouched && (e.getRed() != a.getRed() || e.getGreen() != a.getGreen() || e.getBlue() != a.getBlue()))
+                    fail(message + " - at pixel (" + j + ", " + i + ")");
+            }
+    }
+
+    /** A ray tracer of the scene that runs a hook before tracing each ray, and counts the traced rays */
+    private static class HookedTracer extends RayTracerBase {
+        /** The ray tracer of the scene */
+        private final SimpleRayTracer tracer;
+        /** The hook, called with the number of the ray */
+        private final IntConsumer hook;
+        /** The amount of traced rays */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Constructs the tracer of a scene.
+         * @param scene The scene.
+         * @param hook  The hook, called with the number of the ray before tracing it.
+         */
+        HookedTracer(Scene scene, IntConsumer hook) {
+            super(scene);
+            tracer = new SimpleRayTracer(scene);
+            this.hook = hook;
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            hook.accept(count.incrementAndGet());
+            return tracer.traceRay(ray);
+        }
+    }
+
+    /** Fills the scene with the basic two-color model - a sphere and three triangles */
+    private void twoColorScene() {
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, -100, -100), new Point(-100, -100, -100)),
+                new Triangle(new Point(100, 0, -100), new Point(0, -100, -100), new Point(100, -100, -100)));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 191, 191), Double3.ONE))
+                .setBackground(new Color(75, 127, 90));
+    }
+
     /**
      * Produce a scene with basic 3D model and render it into a png image with a grid
      */
@@ -91,6 +164,187 @@ public class RenderTests {
                 .writeToImage();
     }
 
+    /**
+     * Produce the multi-color scene with several threads, which render the image tile by tile
+     */
+    @Test
+    public void renderMultiColorTilesTest() {
+        scene.geometries.add( // center
+                new Sphere(new Point(0, 0, -100), 50),
+                // up left
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, 100, -100),
+                        new Point(-100, 100, -100))
+                        .setEmission(new Color(GREEN)),
+                // down left
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, -100, -100),
+                        new Point(-100, -100, -100))
+                        .setEmission(new Color(RED)),
+                // down right
+                new Triangle(new Point(100, 0, -100),
+                        new Point(0, -100, -100),
+                        new Point(100, -100, -100))
+                        .setEmission(new Color(BLUE)));
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.2, 0.2, 0.2))); //
+
+        camera
+                .setImageWriter(new ImageWriter("color render tiles test", 1000, 1000))
+                .setMultithreading(3, 16)
+                .build()
+                .renderImage(1)
+                .printGrid(100, new Color(WHITE))
+                .writeToImage();
+    }
+
+    /**
+     * Produce the two-color scene with a parallel stream of rows (multithreading -1)
+     */
+    @Test
+    public void renderTwoColorStreamTest() {
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d),
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, 100, -100),
+                        new Point(-100, 100, -100)), // up
+                // left
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, -100, -100),
+                        new Point(-100, -100, -100)), // down
+                // left
+                new Triangle(new Point(100, 0, -100),
+                        new Point(0, -100, -100),
+                        new Point(100, -100, -100))); // down
+        scene.setAmbientLight(new AmbientLight(new Color(255, 191, 191), Double3.ONE))
+                .setBackground(new Color(75, 127, 90));
+
+        // right
+        ImageWriter reference = new ImageWriter("base render stream reference", 1000, 1000);
+        camera.setImageWriter(reference).build().renderImage(1);
+        ImageWriter stream = new ImageWriter("base render stream test", 1000, 1000);
+        Camera streamCamera = camera
+                .setImageWriter(stream)
+                .setMultithreading(-1)
+                .build()
+                .renderImage(1);
+        assertSameImage(reference, stream, "the stream rendering differs from the single-threaded rendering");
+        streamCamera
+                .printGrid(100, new Color(YELLOW))
+                .writeToImage();
+    }
+
+    /**
+     * Produce the two-color scene with a virtual thread per tile
+     */
+    @Test
+    public void renderTwoColorVirtualThreadsTest() {
+        scene.geometries.add(new Sphere(new Point(0, 0, -100), 50d),
+                new Triangle(new Point(-100, 0, -100), new Point(0, 100, -100), new Point(-100, 100, -100)),
+                new Triangle(new Point(-100, 0, -100), new Point(0, -100, -100), new Point(-100, -100, -100)),
+                new Triangle(new Point(100, 0, -100), new Point(0, -100, -100), new Point(100, -100, -100)));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 191, 191), Double3.ONE))
+                .setBackground(new Color(75, 127, 90));
+
+        ImageWriter reference = new ImageWriter("base render virtual threads reference", 1000, 1000);
+        camera.setImageWriter(reference).build().renderImage(1);
+        ImageWriter virtual = new ImageWriter("base render virtual threads test", 1000, 1000);
+        Camera virtualCamera = camera
+                .setImageWriter(virtual)
+                .setVirtualThreads(16, 0)
+                .build()
+                .renderImage(1);
+        assertTrue(virtualCamera.isFrameComplete(), "no pixel may be skipped without a time limit");
+        assertSameImage(reference, virtual, "the virtual threads rendering differs from the single-threaded rendering");
+        virtualCamera
+                .printGrid(100, new Color(YELLOW))
+                .writeToImage();
+    }
+
+    /**
+     * Cancel a rendering with worker threads in the middle of the frame, and cancel a rendering before it starts
+     */
+    @Test
+    public void renderCancelTest() {
+        twoColorScene();
+        ImageWriter reference = new ImageWriter("base render cancel reference", 200, 200);
+        camera.setImageWriter(reference).build().renderImage(1);
+
+        // the rendering is cancelled by the tracer itself after a fixed amount of rays
+        Camera[] cancelled = new Camera[1];
+        HookedTracer tracer = new HookedTracer(scene, count -> {
+            if (count == 5000) cancelled[0].cancel();
+        });
+        ImageWriter partial = new ImageWriter("base render cancel test", 200, 200);
+        cancelled[0] = camera.setImageWriter(partial).setRayTracer(tracer).setMultithreading(2, 16).build();
+        cancelled[0].renderImage(1);
+        assertFalse(cancelled[0].isFrameComplete(), "the cancelled frame must be incomplete");
+        assertTrue(tracer.count.get() <= 5000 + 2, "the threads must stop after their current pixel");
+        assertEquals(200 * 200 - tracer.count.get(), cancelled[0].getSkippedPixels(), "wrong amount of skipped pixels");
+        assertRenderedOrUntouched(reference, partial, "the cancelled rendering wrote a wrong pixel");
+
+        // a cancellation before the rendering skips the whole next frame only
+        Camera idle = camera.setImageWriter(new ImageWriter("base render cancel test", 200, 200))
+                .setRayTracer(new SimpleRayTracer(scene)).build();
+        idle.cancel();
+        assertEquals(200 * 200, idle.renderImage(1).getSkippedPixels(), "the cancellation before the frame was lost");
+        assertTrue(idle.renderImage(1).isFrameComplete(), "the cancellation must be cleared when the frame ends");
+        cancelled[0].shutdown();
+    }
+
+    /**
+     * Render with virtual threads and a tiny time limit of the tiles, so the slow tiles are cut short
+     */
+    @Test
+    public void renderTileDeadlineTest() {
+        twoColorScene();
+        ImageWriter reference = new ImageWriter("base render deadline reference", 100, 100);
+        camera.setImageWriter(reference).build().renderImage(1);
+
+        // every ray takes longer than the time limit of a tile
+        HookedTracer tracer = new HookedTracer(scene, count -> {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ImageWriter partial = new ImageWriter("base render deadline test", 100, 100);
+        Camera late = camera.setImageWriter(partial).setRayTracer(tracer).setVirtualThreads(16, 1).build()
+                .renderImage(1);
+        assertTrue(late.getSkippedPixels() > 0, "the late tiles must be skipped");
+        assertEquals(100 * 100 - tracer.count.get(), late.getSkippedPixels(), "wrong amount of skipped pixels");
+        assertRenderedOrUntouched(reference, partial, "the late tiles wrote a wrong pixel");
+    }
+
+    /**
+     * Produce several frames of the multi-color scene from one camera, rotated between the frames
+     */
+    @Test
+    public void renderFramesTest() {
+        scene.geometries.add( // center
+                new Sphere(new Point(0, 0, -100), 50),
+                // up left
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, 100, -100),
+                        new Point(-100, 100, -100))
+                        .setEmission(new Color(GREEN)),
+                // down left
+                new Triangle(new Point(-100, 0, -100),
+                        new Point(0, -100, -100),
+                        new Point(-100, -100, -100))
+                        .setEmission(new Color(RED)));
+        scene.setAmbientLight(new AmbientLight(new Color(WHITE), new Double3(0.2, 0.2, 0.2))); //
+
+        Camera frames = camera
+                .setImageWriter(new ImageWriter("frame render test", 500, 500))
+                .setMultithreading(2, 16)
+                .build();
+        for (int frame = 0; frame < 3; ++frame)
+            frames.renderFrame(new ImageWriter("frame render test " + frame, 500, 500), 1)
+                    .rotate(30)
+                    .writeToImage();
+        frames.shutdown();
+    }
+
     /**
      * Test for XML based scene - for bonus
      */